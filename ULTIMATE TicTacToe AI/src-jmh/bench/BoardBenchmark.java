@@ -0,0 +1,71 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opérations du plateau et évaluation : une opération est un passage sur les positions
+ * de BenchPositions. Avec -prof gc, gc.alloc.rate.norm donne les octets alloués par passage.
+ *
+ * Usage : java -jar target/benchmarks.jar BoardBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private Workload workload;
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+    }
+
+    @Benchmark
+    public long boardPlayUnplay() {
+        return workload.boardPlayUnplay();
+    }
+
+    @Benchmark
+    public long bitboardPlayUnplay() {
+        return workload.bitboardPlayUnplay();
+    }
+
+    @Benchmark
+    public long boardGenerateMoves() {
+        return workload.boardGenerateMoves();
+    }
+
+    @Benchmark
+    public long bitboardGenerateMoves() {
+        return workload.bitboardGenerateMoves();
+    }
+
+    @Benchmark
+    public long boardCheckGlobalWinner() {
+        return workload.boardCheckGlobalWinner();
+    }
+
+    @Benchmark
+    public long bitboardCheckGlobalWinner() {
+        return workload.bitboardCheckGlobalWinner();
+    }
+
+    @Benchmark
+    public long evaluate() {
+        return workload.evaluate();
+    }
+}
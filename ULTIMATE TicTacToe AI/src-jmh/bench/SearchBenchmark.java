@@ -0,0 +1,66 @@
+package bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche complète (getBestMove à profondeur fixe, table vidée) sur chaque position de
+ * BenchPositions à tour de rôle. Le compteur "nodes" donne les noeuds par seconde ;
+ * avec -prof gc, gc.alloc.rate.norm donne les octets alloués par recherche.
+ *
+ * Usage : java -jar target/benchmarks.jar SearchBenchmark -prof gc [-p depth=11]
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param("9")
+    public int depth;
+
+    private Workload workload;
+    private int next;
+
+    /**
+     * Noeuds visités, rapportés par JMH en noeuds par seconde.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        workload = Workload.load();
+    }
+
+    @Benchmark
+    public long search(Nodes counter) {
+        long nodes = workload.search(next, depth);
+        next = (next + 1) % workload.positions();
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
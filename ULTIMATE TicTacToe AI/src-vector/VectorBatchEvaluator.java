@@ -0,0 +1,56 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Évaluation par lots avec l'API Vector (jdk.incubator.vector) : les positions du lot
+ * sont traitées par groupes de la largeur des registres vectoriels de la machine.
+ *
+ * Pour chaque plateau local, les codes en base 3 et les scores sont lus dans les tables
+ * de LocalTables et d'EvalWeights par des lectures indexées (gather), et les scores des
+ * 9 plateaux sont additionnés et bornés dans un registre. (Le score des lignes de plateaux
+ * gagnés est lu en scalaire : une lecture de plus dans la boucle vectorielle empêche
+ * le JIT de garder les vecteurs dans des registres.) Les positions qui ne remplissent pas un dernier groupe
+ * sont évaluées par la version scalaire.
+ *
+ * Compilation et exécution : voir BatchEvaluator et le README (--add-modules jdk.incubator.vector).
+ */
+public class VectorBatchEvaluator extends BatchEvaluator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    // Codes en base 3 d'un groupe, qui servent d'indices pour lire SCORE
+    private final int[] codes = new int[SPECIES.length()];
+
+    public VectorBatchEvaluator(int capacity, EvalWeights weights) {
+        super(capacity, weights);
+    }
+
+    @Override
+    public String getImplementation() {
+        return "vectoriel (" + SPECIES.length() + " x int)";
+    }
+
+    @Override
+    protected void evaluate(int from, int to) {
+        int[] ternary = LocalTables.TERNARY;
+        int[] local = localScores;
+        int[] global = globalScores;
+        int lanes = SPECIES.length();
+        int upper = from + SPECIES.loopBound(to - from);
+        // Lignes de plateaux gagnés : une lecture par position, en scalaire
+        for (int i = from; i < upper; i++) {
+            scores[i] = global[ternary[wonX[i]] + 2 * ternary[wonO[i]]];
+        }
+        for (int i = from; i < upper; i += lanes) {
+            IntVector sum = IntVector.fromArray(SPECIES, scores, i);
+            for (int b = 0; b < 9; b++) {
+                IntVector x = IntVector.fromArray(SPECIES, ternary, 0, xMasks[b], i);
+                IntVector o = IntVector.fromArray(SPECIES, ternary, 0, oMasks[b], i);
+                x.add(o).add(o).intoArray(codes, 0);
+                sum = sum.add(IntVector.fromArray(SPECIES, local, 0, codes, 0));
+            }
+            sum.max(-EvalWeights.MAX_SCORE).min(EvalWeights.MAX_SCORE).intoArray(scores, i);
+        }
+        super.evaluate(upper, to);
+    }
+}
@@ -1,52 +1,710 @@
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-public class AIPlayer {
-    private Mark cpuMark;
-    private long timeLimitMs;
+public class AIPlayer implements Player {
+    private int cpuMark;
+
+    // Répartition du temps de chaque coup, partagée avec les assistants
+    private final TimeManager time;
+
+    // Profondeur maximale : il n'y a jamais plus de 81 coups à jouer
+    private static final int MAX_DEPTH = 81;
+
+    // Score d'une victoire globale ; les scores au-delà de WIN_BOUND sont des fins de partie
+    private static final int WIN_SCORE = 1000;
+    private static final int WIN_BOUND = WIN_SCORE - MAX_DEPTH;
+
+    // Au-delà de tout score : bornes de la fenêtre complète
+    private static final int INFINITY = WIN_SCORE + 1;
+
+    // Demi-largeur de départ de la fenêtre d'aspiration, doublée à chaque échec
+    private static final int ASPIRATION_WINDOW = 50;
+
+    // Réduction des coups tardifs : à partir du LMR_MIN_MOVES-ième coup d'un noeud,
+    // s'il reste au moins LMR_MIN_DEPTH niveaux ; deux niveaux de moins après LMR_LATE_MOVES coups
+    private static final int LMR_MIN_MOVES = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_LATE_MOVES = 8;
+
+    // Taille par défaut de la table de transposition
+    public static final int DEFAULT_HASH_MB = 64;
+
+    // Table partagée par tous les threads de recherche
+    private final TranspositionTable table;
+
+    // Recherche parallèle (Lazy SMP) : les assistants cherchent la même position
+    // sur leur propre copie du plateau et ne communiquent que par la table.
+    private final AIPlayer master;          // this pour le joueur principal
+    private final AIPlayer[] helpers;
+    private final ExecutorService pool;
+    private volatile boolean stopRequested; // lu par tous les threads, écrit par le principal
+
+    private volatile long deadline; // heure limite de la recherche en cours (repoussée par la réflexion)
+    private boolean aborted;    // vrai si l'itération en cours a dépassé la limite
+    private int searchDepth;    // profondeur de l'itération en cours
+    private int depthLimit = MAX_DEPTH;
+
+    // Poids de l'évaluation (partagés avec les assistants)
+    private EvalWeights weights = EvalWeights.current();
+
+    // Positions symétriques confondues dans la table, coups symétriques écartés à la racine
+    private boolean symmetry = true;
+
+    // Fenêtres nulles (PVS), fenêtres d'aspiration et réduction des coups tardifs
+    private boolean pvs = true;
+
+    private int completedDepth; // profondeur de la dernière itération complète
+    private int completedMove;  // meilleur coup de la dernière itération complète
+    private int completedScore; // valeur de la dernière itération complète
+    private long nodes;         // noeuds visités par ce thread pendant la dernière recherche
+    private long firstIterationNanos;
+    private SearchStats lastStats;
+
+    // Livre d'ouvertures consulté avant toute recherche (null si aucun)
+    private OpeningBook book;
+    private boolean lastFromBook;
+
+    // Résultats conservés d'une partie à l'autre (null si aucun)
+    private PersistentCache cache;
+    private int cacheGeneration = -1; // génération des entrées relues du cache
+
+    // Résolution exacte quand il reste peu de cases libres (créé au premier usage)
+    private EndgameSolver solver;
+    private int solverThreshold = EndgameSolver.DEFAULT_THRESHOLD;
+    private int lastSolved = EndgameSolver.UNKNOWN;
+
+    // Un tampon de coups par niveau (81 places chacun), réutilisé d'une recherche à l'autre
+    private final int[] moveBuffer = new int[(MAX_DEPTH + 1) * 81];
+
+    // Coups de la vérification d'un coup du livre ou de la table, hors de moveBuffer :
+    // la réflexion peut encore chercher sur moveBuffer pendant cette vérification
+    private final int[] legalBuffer = new int[81];
+
+    // Ordre des coups propre au thread (killers, historique)
+    private final MoveOrderer orderer = new MoveOrderer(MAX_DEPTH);
+
+    // Réflexion sur le temps de l'adversaire : position supposée après sa réponse prévue
+    private Thread ponderThread;
+    private BitBoard ponderBits;
+    private int ponderLast;
+    private volatile int ponderMove;
+
+    // Résultat de la dernière itération de searchRoot
+    private int rootBestMove;
+    private int rootBestValue;
 
     public AIPlayer(Mark cpuMark, long timeLimitMs) {
-        this.cpuMark = cpuMark;
-        this.timeLimitMs = timeLimitMs;
+        this(cpuMark, timeLimitMs, DEFAULT_HASH_MB);
+    }
+
+    /**
+     * @param hashMb  Mémoire de la table de transposition, en mégaoctets
+     */
+    public AIPlayer(Mark cpuMark, long timeLimitMs, int hashMb) {
+        this(cpuMark, timeLimitMs, hashMb, 1);
+    }
+
+    /**
+     * @param hashMb   Mémoire de la table de transposition, en mégaoctets
+     * @param threads  Nombre de threads de recherche (1 = recherche séquentielle)
+     */
+    public AIPlayer(Mark cpuMark, long timeLimitMs, int hashMb, int threads) {
+        this.cpuMark = BitBoard.player(cpuMark);
+        this.time = new TimeManager(timeLimitMs);
+        this.table = new TranspositionTable(hashMb);
+        this.master = this;
+        this.helpers = new AIPlayer[Math.max(0, threads - 1)];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new AIPlayer(this);
+        }
+        this.pool = (helpers.length == 0) ? null : Executors.newFixedThreadPool(helpers.length, r -> {
+            Thread t = new Thread(r, "ai-helper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Assistant de recherche : partage la table et le signal d'arrêt du joueur principal
+    private AIPlayer(AIPlayer master) {
+        this.cpuMark = master.cpuMark;
+        this.time = master.time;
+        this.table = master.table;
+        this.weights = master.weights;
+        this.master = master;
+        this.helpers = new AIPlayer[0];
+        this.pool = null;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Noeuds visités pendant la dernière recherche, tous threads confondus.
+     */
+    public long getNodes() {
+        long total = nodes;
+        for (AIPlayer helper : helpers) {
+            total += helper.nodes;
+        }
+        return total;
+    }
+
+    public int getThreadCount() {
+        return helpers.length + 1;
+    }
+
+    @Override
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    @Override
+    public String describeLastSearch() {
+        if (lastFromBook) {
+            return "Coup du livre d'ouvertures";
+        }
+        if (lastSolved == EndgameSolver.WIN || lastSolved == EndgameSolver.DRAW) {
+            return String.format("Position résolue: %s (%d noeuds)",
+                    (lastSolved == EndgameSolver.WIN) ? "victoire" : "nulle", solver.getNodes());
+        }
+        return String.format("Profondeur atteinte: %d, table: %d/%d (%.1f%%), coupures au 1er coup: %d/%d (%.1f%%)%s",
+                completedDepth, table.getHits(), table.getProbes(), 100 * table.getHitRate(),
+                orderer.getFirstMoveCutoffs(), orderer.getCutoffs(), 100 * orderer.getFirstMoveCutoffRate(),
+                (lastSolved == EndgameSolver.LOSS) ? ", position perdue" : "");
+    }
+
+    /**
+     * Libère les threads des assistants ; le joueur ne doit plus être utilisé ensuite.
+     */
+    @Override
+    public void shutdown() {
+        stopPondering();
+        if (cache != null) {
+            try {
+                cache.save(table, cpuMark, cacheGeneration);
+            } catch (IOException e) {
+                System.err.println("Cache de recherche non sauvegardé: " + e.getMessage());
+            }
+            cache = null;
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Préremplit la table avec les résultats du cache ; ceux de cette partie y seront
+     * ajoutés à l'arrêt du joueur (shutdown).
+     */
+    @Override
+    public void setPersistentCache(PersistentCache cache) {
+        this.cache = cache;
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.load(table, cpuMark);
+            cacheGeneration = table.getGeneration();
+        } catch (IOException e) {
+            System.err.println("Cache de recherche non relu: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cases libres (dans les plateaux ouverts) en dessous desquelles la position est
+     * résolue exactement avant de chercher ; 0 pour ne jamais résoudre.
+     */
+    public void setSolverThreshold(int emptyCells) {
+        this.solverThreshold = emptyCells;
+    }
+
+    @Override
+    public void setSafetyMargin(long marginMs) {
+        time.setMarginMs(marginMs);
+    }
+
+    /**
+     * Arrête la recherche à une profondeur fixe plutôt qu'au temps (mesures, outils).
+     */
+    public void setDepthLimit(int depthLimit) {
+        this.depthLimit = Math.min(depthLimit, MAX_DEPTH);
+        for (AIPlayer helper : helpers) {
+            helper.depthLimit = this.depthLimit;
+        }
+    }
+
+    public void setEvalWeights(EvalWeights weights) {
+        this.weights = weights;
+        for (AIPlayer helper : helpers) {
+            helper.weights = weights;
+        }
+    }
+
+    /**
+     * Active ou non l'usage des symétries du plateau (mesures, comparaisons).
+     */
+    public void setSymmetry(boolean symmetry) {
+        this.symmetry = symmetry;
+        for (AIPlayer helper : helpers) {
+            helper.symmetry = symmetry;
+        }
+    }
+
+    /**
+     * Active ou non la recherche à fenêtre nulle (PVS), les fenêtres d'aspiration et la
+     * réduction des coups tardifs ; sans elles, c'est un alpha-beta complet (mesures, comparaisons).
+     */
+    public void setPvs(boolean pvs) {
+        this.pvs = pvs;
+        for (AIPlayer helper : helpers) {
+            helper.pvs = pvs;
+        }
     }
 
     /**
      * Retourne le meilleur coup à jouer,
-     * en utilisant Alpha-Beta (ou Minimax).
+     * en utilisant Alpha-Beta (negamax, PVS) par approfondissement itératif :
+     * on cherche à profondeur 1, 2, 3... tant qu'il reste du temps,
+     * et on garde le meilleur coup de la dernière itération complète.
      *
      * @param board     L'état actuel du plateau géant
      * @param lastMove  Le dernier coup joué (pour générer les coups)
      * @return          Le coup sélectionné par l'IA
      */
+    @Override
     public Move getBestMove(Board board, Move lastMove) {
         long startTime = System.currentTimeMillis();
 
-        java.util.List<Move> moves = board.generateMoves(lastMove, cpuMark);
+        // La recherche travaille sur la représentation compacte du plateau
+        BitBoard bits = new BitBoard(board);
+        int last = (lastMove == null) ? -1 : BitBoard.index(lastMove.getRow(), lastMove.getCol());
+
+        // Position du livre : on joue sans chercher
+        lastFromBook = false;
+        int bookMove = (book == null) ? -1 : book.probe(bits.key(last, cpuMark));
+        if (bookMove >= 0 && isLegal(bits, last, bookMove, legalBuffer)) {
+            stopPondering();
+            lastFromBook = true;
+            lastStats = bookStats(bookMove, startTime);
+            return toMove(bookMove);
+        }
+
+        if (ponderThread != null) {
+            boolean hit = ponderLast == last && ponderBits.getHash() == bits.getHash();
+            if (hit) {
+                // L'adversaire a joué le coup prévu : la réflexion devient la recherche de ce coup
+                time.startClock(startTime);
+                deadline = time.getDeadline();
+            } else {
+                stopRequested = true;
+            }
+            joinPonder();
+            if (hit && ponderMove >= 0) {
+                lastStats.pondered = true;
+                return toMove(ponderMove);
+            }
+        }
+
+        time.startClock(startTime);
+        deadline = time.getDeadline();
+        stopRequested = false;
+        int move = search(bits, last);
+        return (move < 0) ? null : toMove(move);
+    }
+
+    /**
+     * Réfléchit pendant le temps de l'adversaire : on suppose qu'il jouera la réponse
+     * gardée dans la table pour la position après notre coup, et on cherche déjà notre
+     * coup suivant sur un thread de fond, sans limite de temps.
+     *
+     * @param board     Le plateau, notre coup déjà joué
+     * @param lastMove  Notre coup
+     */
+    @Override
+    public void startPondering(Board board, Move lastMove) {
+        stopPondering();
+        BitBoard bits = new BitBoard(board);
+        int ours = BitBoard.index(lastMove.getRow(), lastMove.getCol());
+        int opponent = getOpponent(cpuMark);
+        if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return;
+        }
+
+        int reply = tableMove(bits, ours, opponent);
+        if (reply < 0 || !isLegal(bits, ours, reply, legalBuffer)) {
+            return;
+        }
+        bits.play(reply, opponent);
+        if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return;
+        }
+
+        ponderBits = bits;
+        ponderLast = reply;
+        ponderMove = -1;
+        time.stopClock();
+        deadline = time.getDeadline();
+        stopRequested = false;
+        BitBoard searchBits = new BitBoard(bits);
+        ponderThread = new Thread(() -> ponderMove = search(searchBits, reply), "ai-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    @Override
+    public void stopPondering() {
+        if (ponderThread != null) {
+            stopRequested = true;
+            joinPonder();
+        }
+    }
+
+    /**
+     * Interrompt, depuis un autre thread, la recherche en cours : getBestMove rend alors le coup
+     * de la dernière itération complète. Une recherche lancée après cet appel n'est pas touchée.
+     */
+    public void abortSearch() {
+        stopRequested = true;
+    }
+
+    private void joinPonder() {
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+
+    private static boolean isLegal(BitBoard bits, int last, int move, int[] buffer) {
+        int count = bits.generateMoves(last, buffer, 0);
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Le meilleur coup gardé dans la table pour la position, ou -1 s'il n'y en a pas.
+     * Le coup n'est pas vérifié : la clé peut être celle d'une autre position.
+     */
+    private int tableMove(BitBoard bits, int last, int player) {
+        int sym = symmetry ? bits.symmetry(last) : Symmetry.IDENTITY;
+        long entry = table.probe(bits.key(last, player, sym));
+        if (entry == TranspositionTable.MISS) {
+            return -1;
+        }
+        return Symmetry.cell(Symmetry.inverse(sym), TranspositionTable.move(entry));
+    }
+
+    /**
+     * Ne garde qu'un coup (le plus petit index) de chaque groupe de coups symétriques,
+     * quand la position est sa propre image par une symétrie (début de partie surtout).
+     *
+     * @return  Le nombre de coups restants, au début de moves
+     */
+    private int removeSymmetricMoves(BitBoard bits, int last, int[] moves, int count) {
+        int invariant = symmetry ? bits.invariantSymmetries(last) : 0;
+        if (invariant == 0) {
+            return count;
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            boolean smallest = true;
+            for (int s = 1; s < Symmetry.COUNT && smallest; s++) {
+                smallest = (invariant & (1 << s)) == 0 || Symmetry.cell(s, move) >= move;
+            }
+            if (smallest) {
+                moves[kept++] = move;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Recherche complète d'une position jusqu'à deadline ou stopRequested.
+     *
+     * @return  Le meilleur coup (index compact), ou -1 s'il n'y a aucun coup légal
+     */
+    private int search(BitBoard bits, int last) {
+        long startNanos = System.nanoTime();
+        long gcCountBefore = Telemetry.gcCount();
+        long gcTimeBefore = Telemetry.gcTimeMs();
+        int count = bits.generateMoves(last, moveBuffer, 0);
 
-        if (moves.isEmpty()) {
-            return null;
+        if (count == 0) {
+            return -1;
+        }
+        count = removeSymmetricMoves(bits, last, moveBuffer, count);
+
+        time.newPosition(count);
+        completedDepth = 0;
+        completedMove = moveBuffer[0];
+        completedScore = 0;
+        nodes = 0;
+        firstIterationNanos = 0;
+
+        lastSolved = EndgameSolver.UNKNOWN;
+        if (count > 1 && EndgameSolver.emptyCells(bits) <= solverThreshold) {
+            lastSolved = solve(bits, last);
+            if (lastSolved == EndgameSolver.WIN || lastSolved == EndgameSolver.DRAW) {
+                // Résultat exact : on joue tout de suite le coup qui l'assure
+                completedMove = solver.getBestMove();
+                completedScore = (lastSolved == EndgameSolver.WIN) ? WIN_SCORE : 0;
+                lastStats = buildStats(bits, last, startNanos, gcCountBefore, gcTimeBefore);
+                return completedMove;
+            }
+        }
+
+        table.newSearch();
+        table.resetStats();
+        if (count > 1) {
+            List<Future<?>> running = startHelpers(bits, last);
+            iterate(bits, count, 1);
+            stopRequested = true;
+            waitFor(running);
+
+            // On garde le résultat de l'itération complète la plus profonde
+            for (AIPlayer helper : helpers) {
+                if (helper.completedDepth > completedDepth) {
+                    completedDepth = helper.completedDepth;
+                    completedMove = helper.completedMove;
+                    completedScore = helper.completedScore;
+                }
+            }
+        }
+
+        lastStats = buildStats(bits, last, startNanos, gcCountBefore, gcTimeBefore);
+        return completedMove;
+    }
+
+    private SearchStats buildStats(BitBoard bits, int last, long startNanos, long gcCountBefore, long gcTimeBefore) {
+        SearchStats stats = new SearchStats();
+        stats.engine = "alphabeta";
+        stats.move = toMove(completedMove).toServerString();
+        stats.elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        stats.nodes = getNodes();
+        stats.depth = completedDepth;
+        stats.score = completedScore;
+        stats.hashHitRate = table.getHitRate();
+        stats.cutoffs = orderer.getCutoffs();
+        stats.firstMoveCutoffs = orderer.getFirstMoveCutoffs();
+        for (AIPlayer helper : helpers) {
+            stats.cutoffs += helper.orderer.getCutoffs();
+            stats.firstMoveCutoffs += helper.orderer.getFirstMoveCutoffs();
+        }
+        stats.timeToFirstMoveMs = (firstIterationNanos == 0)
+                ? stats.elapsedMs : (firstIterationNanos - startNanos) / 1_000_000;
+        stats.principalVariation = principalVariation(bits, last);
+        stats.gcCount = Telemetry.gcCount() - gcCountBefore;
+        stats.gcTimeMs = Telemetry.gcTimeMs() - gcTimeBefore;
+        stats.threads = getThreadCount();
+        if (lastSolved != EndgameSolver.UNKNOWN) {
+            stats.solved = (lastSolved == EndgameSolver.WIN) ? "win" : (lastSolved == EndgameSolver.DRAW) ? "draw" : "loss";
+            stats.nodes += solver.getNodes();
+        }
+        return stats;
+    }
+
+    /**
+     * Résolution exacte, avec au plus la moitié du temps restant : si elle n'aboutit pas,
+     * la recherche normale garde l'autre moitié, et les résultats partiels restent dans
+     * la table du solveur pour les coups suivants.
+     */
+    private int solve(BitBoard bits, int last) {
+        if (solver == null) {
+            solver = new EndgameSolver(EndgameSolver.DEFAULT_CACHE_MB);
+        }
+        long start = System.currentTimeMillis();
+        // deadline est relue à chaque vérification : elle change quand la réflexion devient la recherche
+        return solver.solve(bits, last, cpuMark,
+                () -> stopRequested || System.currentTimeMillis() >= start + (deadline - start) / 2);
+    }
+
+    private SearchStats bookStats(int move, long startTime) {
+        SearchStats stats = new SearchStats();
+        stats.engine = "book";
+        stats.move = toMove(move).toServerString();
+        stats.elapsedMs = System.currentTimeMillis() - startTime;
+        stats.principalVariation = List.of(stats.move);
+        stats.threads = getThreadCount();
+        return stats;
+    }
+
+    /**
+     * Variation principale : le coup choisi, puis les meilleurs coups gardés dans la table.
+     */
+    private List<String> principalVariation(BitBoard root, int last) {
+        BitBoard bits = new BitBoard(root);
+        List<String> pv = new ArrayList<>();
+        int[] buffer = new int[81];
+        int player = cpuMark;
+        int move = completedMove;
+        while (move >= 0 && pv.size() < Math.max(1, completedDepth)) {
+            bits.play(move, player);
+            pv.add(toMove(move).toServerString());
+            if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+                break;
+            }
+            last = move;
+            player = getOpponent(player);
+            move = tableMove(bits, last, player);
+            if (move >= 0 && !isLegal(bits, last, move, buffer)) {
+                move = -1;
+            }
         }
+        return pv;
+    }
 
-        Move bestMove = moves.get(0);
-        int bestValue = Integer.MIN_VALUE;
+    private static Move toMove(int idx) {
+        return new Move(BitBoard.rowOf(idx), BitBoard.colOf(idx));
+    }
 
-        int alpha = Integer.MIN_VALUE;
-        int beta  = Integer.MAX_VALUE;
+    /**
+     * Approfondissement itératif sur les count coups au début de moveBuffer,
+     * à partir de la profondeur firstDepth, jusqu'à la limite de temps ou l'arrêt demandé.
+     * Chaque itération cherche d'abord dans une fenêtre d'aspiration autour du score
+     * de la précédente, élargie tant que le résultat tombe en dehors.
+     */
+    private void iterate(BitBoard bits, int count, int firstDepth) {
+        aborted = false;
+        orderer.newSearch();
+        for (searchDepth = firstDepth; searchDepth <= depthLimit; searchDepth++) {
+            int alpha = -INFINITY;
+            int beta = INFINITY;
+            if (pvs && completedDepth > 0 && Math.abs(completedScore) < WIN_BOUND) {
+                alpha = completedScore - ASPIRATION_WINDOW;
+                beta = completedScore + ASPIRATION_WINDOW;
+            }
+            int window = ASPIRATION_WINDOW;
+            while (true) {
+                searchRoot(bits, count, alpha, beta);
+                if (aborted) {
+                    break;
+                }
+                if (rootBestValue <= alpha) {
+                    alpha = Math.max(-INFINITY, alpha - window);
+                } else if (rootBestValue >= beta) {
+                    // Le coup qui a dépassé la fenêtre est cherché en premier
+                    moveToFront(moveBuffer, 0, count, rootBestMove);
+                    beta = Math.min(INFINITY, beta + window);
+                } else {
+                    break;
+                }
+                window *= 2;
+            }
+            if (aborted) {
+                // Itération incomplète : on garde le résultat de la précédente
+                break;
+            }
+            completedMove = rootBestMove;
+            completedDepth = searchDepth;
+            completedScore = rootBestValue;
+            if (firstIterationNanos == 0) {
+                firstIterationNanos = System.nanoTime();
+            }
+            // Le meilleur coup est cherché en premier à l'itération suivante
+            moveToFront(moveBuffer, 0, count, completedMove);
+            if (Math.abs(rootBestValue) >= WIN_BOUND) {
+                // Fin de partie forcée trouvée, inutile d'aller plus loin
+                break;
+            }
+            if (master == this && !time.iterationDone(completedMove, completedScore)) {
+                // L'itération suivante ne finirait probablement pas avant la limite
+                break;
+            }
+        }
+    }
 
-        for (Move move : moves) {
+    private List<Future<?>> startHelpers(BitBoard bits, int last) {
+        List<Future<?>> running = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            AIPlayer helper = helpers[i];
+            int id = i + 1;
+            BitBoard copy = new BitBoard(bits);
+            running.add(pool.submit(() -> helper.helperSearch(copy, last, id)));
+        }
+        return running;
+    }
 
-            board.play(move.getRow(), move.getCol(), cpuMark);
+    /**
+     * Recherche d'un assistant : les coups de la racine sont décalés et la profondeur
+     * de départ alterne pour que les threads n'explorent pas l'arbre dans le même ordre.
+     */
+    private void helperSearch(BitBoard bits, int last, int id) {
+        deadline = master.deadline;
+        completedDepth = 0;
+        nodes = 0;
+        int count = removeSymmetricMoves(bits, last, moveBuffer, bits.generateMoves(last, moveBuffer, 0));
+        completedMove = moveBuffer[0];
+        for (int i = 0; i < id % count; i++) {
+            moveToFront(moveBuffer, 0, count, moveBuffer[count - 1]);
+        }
+        iterate(bits, count, 1 + id % 2);
+    }
 
-            int value = alphaBeta(board,
-                    move,                  // le dernier coup devient celui qu'on vient de jouer
-                    1,                     // profondeur initiale = 1
-                    startTime,
-                    alpha,
-                    beta,
-                    false,                 // isMaximizing = false (l'adversaire joue)
-                    getOpponent(cpuMark));
+    private static void waitFor(List<Future<?>> running) {
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erreur dans un thread de recherche", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Cherche les count coups de la racine (au début de moveBuffer) à la profondeur searchDepth,
+     * dans la fenêtre ]alpha, beta[. Le résultat est laissé dans rootBestMove et rootBestValue :
+     * si rootBestValue <= alpha ou >= beta, ce n'est qu'une borne.
+     */
+    private void searchRoot(BitBoard bits, int count, int alpha, int beta) {
+        int bestMove = moveBuffer[0];
+        int bestValue = -INFINITY;
+        int opponent = getOpponent(cpuMark);
+
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+
+            bits.play(move, cpuMark);
+
+            int value;
+            if (i == 0 || !pvs) {
+                value = -negamax(bits, move, 1, searchDepth - 1, -beta, -alpha, opponent);
+            } else {
+                // Les coups suivants doivent seulement prouver qu'ils ne battent pas le meilleur
+                value = -negamax(bits, move, 1, searchDepth - 1, -alpha - 1, -alpha, opponent);
+                if (value > alpha && value < beta) {
+                    value = -negamax(bits, move, 1, searchDepth - 1, -beta, -alpha, opponent);
+                }
+            }
 
             // Annule le coup (backtracking)
-            board.unplay(move.getRow(), move.getCol());
+            bits.unplay(move);
+
+            if (aborted) {
+                break;
+            }
 
             // On met à jour la meilleure valeur
             if (value > bestValue) {
@@ -60,148 +718,204 @@ public class AIPlayer {
             }
         }
 
-        return bestMove;
+        rootBestMove = bestMove;
+        rootBestValue = bestValue;
+    }
+
+    // Place move en tête des count coups commençant à start, sans changer l'ordre des autres
+    private static void moveToFront(int[] moves, int start, int count, int move) {
+        for (int i = start; i < start + count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, start, moves, start + 1, i - start);
+                moves[start] = move;
+                return;
+            }
+        }
     }
 
     /**
-     * La fonction alphaBeta (ou Minimax) qui évalue récursivement.
+     * Alpha-Beta sous forme negamax : le score est toujours du point de vue du joueur
+     * au trait, et la valeur d'un coup est l'opposé de celle de la position qui suit.
+     *
+     * Recherche à variation principale (PVS) : le premier coup (le mieux ordonné) est
+     * cherché dans la fenêtre complète, les suivants avec une fenêtre nulle qui prouve
+     * seulement qu'ils ne font pas mieux ; un coup qui la dépasse est recherché en entier.
+     * Les coups tranquilles tardifs (ni coup de la table, ni gain ou blocage de plateau,
+     * ni killer, et qui ne laissent pas le choix du plateau à l'adversaire) sont d'abord
+     * cherchés moins profond, puis à la profondeur normale s'ils dépassent alpha.
      *
      * @param board       Le plateau
-     * @param lastMove    Le dernier coup joué
-     * @param depth       La profondeur actuelle
-     * @param startTime   L'heure de début (pour la limite de temps)
-     * @param alpha       Borne alpha (pour Max)
-     * @param beta        Borne beta (pour Min)
-     * @param isMaximizing Indique si c'est au tour du joueur MAX (cpu) ou MIN (adversaire)
-     * @param currentMark La pièce du joueur courant (X ou O)
-     * @return            Un score représentant la valeur de la position
-     */
-    private static final int MAX_DEPTH = 4; // ou 5
-
-    private int alphaBeta(Board board,
-                          Move lastMove,
-                          int depth,
-                          long startTime,
-                          int alpha,
-                          int beta,
-                          boolean isMaximizing,
-                          Mark currentMark) {
-
-        // Vérification du temps
-        if (System.currentTimeMillis() - startTime >= timeLimitMs) {
-            return evaluate(board);
-        }
+     * @param lastMove    Le dernier coup joué (index compact)
+     * @param ply         Le nombre de coups depuis la racine
+     * @param depth       Le nombre de niveaux restant à chercher
+     * @param alpha       Borne basse, pour le joueur au trait
+     * @param beta        Borne haute, pour le joueur au trait
+     * @param currentMark La pièce du joueur au trait (X ou O)
+     * @return            La valeur de la position pour currentMark
+     */
+    private int negamax(BitBoard board,
+                        int lastMove,
+                        int ply,
+                        int depth,
+                        int alpha,
+                        int beta,
+                        int currentMark) {
 
-        // Vérification de la profondeur
-        if (depth >= MAX_DEPTH) {
-            return evaluate(board);
+        // Vérification du temps tous les CHECK_INTERVAL noeuds : le résultat d'une itération interrompue est ignoré
+        if (aborted) {
+            return 0;
+        }
+        if ((++nodes & TimeManager.CHECK_MASK) == 0
+                && (master.stopRequested || System.currentTimeMillis() >= deadline)) {
+            aborted = true;
+            return 0;
         }
 
-        // Vérification de la fin de partie
-        Mark winner = board.checkGlobalWinner();
-        if (winner == cpuMark) {
-            return 1000 - depth;
-        } else if (winner == getOpponent(cpuMark)) {
-            return -1000 + depth;
+        // Vérification de la fin de partie : un vainqueur ne peut être que celui qui vient de jouer
+        if (board.checkGlobalWinner() != BitBoard.EMPTY) {
+            return -WIN_SCORE + ply;
         } else if (board.isGlobalClosed()) {
             return 0;
         }
 
-        // Génération des coups
-        List<Move> moves = board.generateMoves(lastMove, currentMark);
-        if (moves.isEmpty()) {
-            return evaluate(board);
+        // Vérification de la profondeur
+        if (depth <= 0) {
+            return evaluate(board, currentMark);
         }
 
-        if (isMaximizing) {
-            int bestValue = Integer.MIN_VALUE;
-            for (Move move : moves) {
-                board.play(move.getRow(), move.getCol(), currentMark);
-                int value = alphaBeta(board, move, depth + 1, startTime,
-                        alpha, beta, false, getOpponent(currentMark));
-                board.unplay(move.getRow(), move.getCol());
-                bestValue = Math.max(bestValue, value);
-                alpha = Math.max(alpha, bestValue);
-                if (alpha >= beta) {
-                    break;
+        // Consultation de la table de transposition, sous la forme canonique de la position :
+        // le coup gardé est celui de la forme canonique, ramené ici par la symétrie inverse.
+        // La table garde les scores du point de vue de cpuMark (comme le cache persistant).
+        int sign = (currentMark == cpuMark) ? 1 : -1;
+        int sym = symmetry ? board.symmetry(lastMove) : Symmetry.IDENTITY;
+        long key = board.key(lastMove, currentMark, sym);
+        long entry = table.probe(key);
+        int hashMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = Symmetry.cell(Symmetry.inverse(sym), TranspositionTable.move(entry));
+            if (TranspositionTable.depth(entry) >= depth) {
+                int stored = sign * fromTableScore(TranspositionTable.score(entry), ply);
+                int bound = (sign > 0) ? TranspositionTable.bound(entry) : flip(TranspositionTable.bound(entry));
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && stored >= beta)
+                        || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+                    return stored;
                 }
             }
-            return bestValue;
-        } else {
-            int bestValue = Integer.MAX_VALUE;
-            for (Move move : moves) {
-                board.play(move.getRow(), move.getCol(), currentMark);
-                int value = alphaBeta(board, move, depth + 1, startTime,
-                        alpha, beta, true, getOpponent(currentMark));
-                board.unplay(move.getRow(), move.getCol());
-                bestValue = Math.min(bestValue, value);
-                beta = Math.min(beta, bestValue);
-                if (beta <= alpha) {
-                    break;
+        }
+
+        // Génération des coups dans le tampon de ce niveau
+        int start = ply * 81;
+        int count = board.generateMoves(lastMove, moveBuffer, start);
+        if (count == 0) {
+            return evaluate(board, currentMark);
+        }
+        int end = start + count;
+        orderer.score(board, moveBuffer, start, count, hashMove, ply, currentMark);
+
+        int alphaOrig = alpha;
+        int opponent = getOpponent(currentMark);
+        int bestMove = -1;
+        int bestValue = -INFINITY;
+
+        for (int i = start; i < end; i++) {
+            int move = orderer.pick(moveBuffer, i, end);
+            boolean quiet = orderer.isQuiet(i);
+            board.play(move, currentMark);
+            int value;
+            if (i == start || !pvs) {
+                value = -negamax(board, move, ply + 1, depth - 1, -beta, -alpha, opponent);
+            } else {
+                int reduction = 0;
+                if (quiet && depth >= LMR_MIN_DEPTH && i - start >= LMR_MIN_MOVES && board.target(move) != 9) {
+                    reduction = (i - start >= LMR_LATE_MOVES && depth > LMR_MIN_DEPTH) ? 2 : 1;
+                }
+                value = -negamax(board, move, ply + 1, depth - 1 - reduction, -alpha - 1, -alpha, opponent);
+                if (value > alpha && reduction > 0) {
+                    value = -negamax(board, move, ply + 1, depth - 1, -alpha - 1, -alpha, opponent);
+                }
+                if (value > alpha && value < beta) {
+                    value = -negamax(board, move, ply + 1, depth - 1, -beta, -alpha, opponent);
                 }
             }
-            return bestValue;
+            board.unplay(move);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = move;
+            }
+            alpha = Math.max(alpha, bestValue);
+            if (alpha >= beta) {
+                if (!aborted) {
+                    orderer.cutoff(move, i, start, ply, currentMark, depth);
+                }
+                break;
+            }
         }
+
+        // Un résultat obtenu après la limite de temps n'est pas fiable
+        if (!aborted) {
+            int bound;
+            if (bestValue <= alphaOrig) {
+                bound = TranspositionTable.UPPER;
+            } else if (bestValue >= beta) {
+                bound = TranspositionTable.LOWER;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            table.store(key, depth, toTableScore(sign * bestValue, ply),
+                    (sign > 0) ? bound : flip(bound), Symmetry.cell(sym, bestMove));
+        }
+        return bestValue;
+    }
+
+    // Borne vue par l'autre joueur : une borne basse devient une borne haute
+    private static int flip(int bound) {
+        if (bound == TranspositionTable.LOWER) return TranspositionTable.UPPER;
+        if (bound == TranspositionTable.UPPER) return TranspositionTable.LOWER;
+        return bound;
+    }
+
+    // Les scores de fin de partie sont stockés relativement à la position,
+    // pour rester valides quand elle est retrouvée à une autre profondeur.
+    private static int toTableScore(int score, int depth) {
+        if (score >= WIN_BOUND) return score + depth;
+        if (score <= -WIN_BOUND) return score - depth;
+        return score;
+    }
+
+    private static int fromTableScore(int score, int depth) {
+        if (score >= WIN_BOUND) return score - depth;
+        if (score <= -WIN_BOUND) return score + depth;
+        return score;
     }
 
 
     /**
      * Évalue la position du point de vue de 'cpuMark'
      * quand ce n'est pas un état terminal clair (pas de vainqueur global).
-     *
-     * --> À peaufiner selon ce qu'on veut.
+     * Le score de chaque plateau local (gagné ou non), puis celui des lignes de plateaux
+     * gagnés, sont lus dans les tables des poids (EvalWeights).
+     * Visible dans le paquetage pour les mesures de performance.
      */
-    private int evaluateLocalBoard(LocalBoard lb, Mark perspective) {
-        int sum = 0;
-        for (int i = 0; i < 3; i++) {
-            sum += evaluateLine(lb.getCell(i,0), lb.getCell(i,1), lb.getCell(i,2), perspective);
-            sum += evaluateLine(lb.getCell(0,i), lb.getCell(1,i), lb.getCell(2,i), perspective);
-        }
-        sum += 1.5 * evaluateLine(lb.getCell(0,0), lb.getCell(1,1), lb.getCell(2,2), perspective);
-        sum += 1.5 * evaluateLine(lb.getCell(0,2), lb.getCell(1,1), lb.getCell(2,0), perspective);
-
-        return sum;
-    }
-
-    private int evaluateLine(Mark m1, Mark m2, Mark m3, Mark perspective) {
-        Mark opp = getOpponent(perspective);
-        int countP = 0, countOpp = 0;
-        Mark[] cells = {m1, m2, m3};
-        for (Mark m : cells) {
-            if (m == perspective) countP++;
-            else if (m == opp)    countOpp++;
-        }
-        
-        if (countP > 0 && countOpp > 0) return 0;
-        if (countP == 0 && countOpp == 0) return 0;
-        if (countP > 0) {
-            
-            return (int) Math.pow(10, countP - 1);
-        } else {
-            return -(int) Math.pow(10, countOpp - 1);
+    int evaluate(BitBoard board) {
+        int score = 0;
+        for (int b = 0; b < 9; b++) {
+            score += weights.localScore(LocalTables.index(board.getLocalMask(b, BitBoard.X), board.getLocalMask(b, BitBoard.O)));
         }
+        score += weights.globalScore(LocalTables.index(board.getWonMask(BitBoard.X), board.getWonMask(BitBoard.O)));
+        // Des poids ajustés ne doivent pas faire passer une évaluation pour une fin de partie
+        score = Math.max(-EvalWeights.MAX_SCORE, Math.min(EvalWeights.MAX_SCORE, score));
+        return (cpuMark == BitBoard.X) ? score : -score;
     }
 
-    private int evaluate(Board board) {
-        int score = 0;
-        for (int lr = 0; lr < 3; lr++) {
-            for (int lc = 0; lc < 3; lc++) {
-                LocalBoard lb = board.getLocalBoard(lr, lc);
-                Mark w = lb.getWinner();
-                if (w == cpuMark) {
-                    score += 100;  
-                } else if (w == getOpponent(cpuMark)) {
-                    score -= 100;
-                } else {
-                    score += evaluateLocalBoard(lb, cpuMark);
-                }
-            }
-        }
-        return score;
+    // Évaluation du point de vue du joueur au trait
+    private int evaluate(BitBoard board, int player) {
+        int score = evaluate(board);
+        return (player == cpuMark) ? score : -score;
     }
 
 
-    private Mark getOpponent(Mark m) {
-        return (m == Mark.X) ? Mark.O : Mark.X;
+    private int getOpponent(int m) {
+        return BitBoard.opponent(m);
     }
 }
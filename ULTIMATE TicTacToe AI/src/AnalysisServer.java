@@ -0,0 +1,399 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serveur d'analyse de positions, pour revoir des parties en masse.
+ *
+ * Protocole texte sur TCP, sur l'adresse locale seulement. Le client envoie un lot de
+ * positions, une par ligne, terminé par une ligne vide :
+ *     81 valeurs du plateau (encodage du serveur de jeu : 4 = X, 2 = O, 0 = vide),
+ *     dernier coup joué ("A0" s'il n'y en a pas), puis, en option, le temps d'analyse en ms
+ * Le serveur répond une ligne par position, dans l'ordre du lot, puis une ligne vide :
+ *     ok coup score profondeur noeuds variation...   (score du point de vue du joueur au trait)
+ *     fin                                            (partie terminée, aucun coup)
+ *     occupé                                         (file pleine : renvoyer la position plus tard)
+ *     erreur message                                 (ligne mal formée ou position impossible)
+ * La ligne "stats" donne les compteurs du serveur.
+ *
+ * Les positions sont analysées par un groupe de workers, chacune avec son propre moteur
+ * (AIPlayer à un thread) et son temps. Les résultats sont gardés par clé de position
+ * (BitBoard.key) : une position déjà analysée, au moins aussi longtemps, est servie du cache,
+ * et une position déjà en cours d'analyse partage ce calcul. La file d'attente des workers
+ * est bornée : quand elle est pleine, les positions suivantes reçoivent "occupé" au lieu
+ * d'attendre sans limite.
+ *
+ * Usage : java AnalysisServer [port=8890] [workers=nbCoeurs] [file=64]
+ */
+public class AnalysisServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 8890;
+    public static final int DEFAULT_QUEUE = 64;
+    public static final long DEFAULT_TIME_MS = 1000;
+    public static final long MAX_TIME_MS = 60_000;
+
+    // Analyses gardées en cache (les moins récemment servies sont oubliées)
+    private static final int CACHE_ENTRIES = 100_000;
+
+    // Mémoire de la table de chaque analyse
+    private static final int HASH_MB = 16;
+
+    private final ServerSocket serverSocket;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService connections;
+
+    private final Map<Long, Pending> running = new ConcurrentHashMap<>();
+    private final Map<Long, Analysis> cache = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Analysis> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+
+    private final AtomicLong analysed = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Résultat de l'analyse d'une position.
+     */
+    public static final class Analysis {
+        private final String position;   // valeurs et dernier coup, pour écarter les collisions de clé
+        private final long timeMs;
+        private final String move;       // null si la partie est terminée
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final List<String> principalVariation;
+
+        Analysis(String position, long timeMs, SearchStats stats) {
+            this.position = position;
+            this.timeMs = timeMs;
+            this.move = (stats == null) ? null : stats.getMove();
+            this.score = (stats == null) ? 0 : stats.getScore();
+            this.depth = (stats == null) ? 0 : stats.getDepth();
+            this.nodes = (stats == null) ? 0 : stats.getNodes();
+            this.principalVariation = (stats == null) ? List.of() : stats.getPrincipalVariation();
+        }
+
+        public String getMove() {
+            return move;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public List<String> getPrincipalVariation() {
+            return principalVariation;
+        }
+
+        // Ligne de réponse du protocole
+        String toLine() {
+            if (move == null) {
+                return "fin";
+            }
+            return "ok " + move + " " + score + " " + depth + " " + nodes + " " + String.join(" ", principalVariation);
+        }
+    }
+
+    // Analyse en cours : la position et le temps disent si une autre demande peut la partager
+    private static final class Pending {
+        private final String position;
+        private final long timeMs;
+        private final CompletableFuture<Analysis> future = new CompletableFuture<>();
+
+        Pending(String position, long timeMs) {
+            this.position = position;
+            this.timeMs = timeMs;
+        }
+    }
+
+    /**
+     * @param port           Port d'écoute (0 : un port libre choisi par le système)
+     * @param workerCount    Analyses menées en même temps
+     * @param queueCapacity  Analyses en attente au plus, au-delà les positions sont refusées
+     */
+    public AnalysisServer(int port, int workerCount, int queueCapacity) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> daemon(r, "analysis-worker"));
+        this.connections = Executors.newCachedThreadPool(r -> daemon(r, "analysis-connection"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workerCount = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queue = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_QUEUE;
+
+        AnalysisServer server = new AnalysisServer(port, workerCount, queue);
+        System.out.printf("Serveur d'analyse sur localhost:%d, %d workers, file de %d positions%n",
+                server.getPort(), workerCount, queue);
+        server.serve();
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepte les connexions jusqu'à la fermeture du serveur ; chacune a son thread.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> handle(socket));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        workers.shutdownNow();
+        connections.shutdownNow();
+    }
+
+    /**
+     * Analyse une position, ou rejoint l'analyse de la même position déjà en cours, si elle
+     * dure au moins aussi longtemps. Une partie terminée n'est pas cherchée.
+     *
+     * @param board     La position
+     * @param lastMove  Le dernier coup joué (null s'il n'y en a pas)
+     * @param timeMs    Temps d'analyse
+     * @return          Le résultat à venir, ou null si la file des workers est pleine
+     */
+    public CompletableFuture<Analysis> submit(Board board, Move lastMove, long timeMs) {
+        BitBoard bits = new BitBoard(board);
+        int last = (lastMove == null) ? -1 : BitBoard.index(lastMove.getRow(), lastMove.getCol());
+        int player = sideToMove(bits);
+        long key = bits.key(last, player);
+        String position = board.toValues() + " " + ((lastMove == null) ? "A0" : lastMove.toServerString());
+
+        // Vainqueur global ou plus aucun plateau ouvert : il n'y a pas de coup à chercher
+        if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return CompletableFuture.completedFuture(new Analysis(position, timeMs, null));
+        }
+
+        Analysis cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && cached.position.equals(position) && cached.timeMs >= timeMs) {
+            cacheHits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Une analyse en cours n'est partagée que pour la même position (pas une collision de clé)
+        // et un temps au moins égal ; sinon celle-ci est menée à part, sans prendre sa place
+        Pending pending = new Pending(position, timeMs);
+        Pending existing = running.putIfAbsent(key, pending);
+        if (existing != null && existing.position.equals(position) && existing.timeMs >= timeMs) {
+            shared.incrementAndGet();
+            return existing.future;
+        }
+        try {
+            workers.execute(() -> analyse(board, lastMove, player, key, pending));
+        } catch (RejectedExecutionException e) {
+            running.remove(key, pending);
+            rejected.incrementAndGet();
+            return null;
+        }
+        return pending.future;
+    }
+
+    private void analyse(Board board, Move lastMove, int player, long key, Pending pending) {
+        long timeMs = pending.timeMs;
+        CompletableFuture<Analysis> future = pending.future;
+        try {
+            AIPlayer ai = new AIPlayer((player == BitBoard.X) ? Mark.X : Mark.O, timeMs, HASH_MB);
+            ai.setSafetyMargin(0);
+            Move move;
+            try {
+                move = ai.getBestMove(board, lastMove);
+            } finally {
+                ai.shutdown();
+            }
+            Analysis analysis = new Analysis(pending.position, timeMs, (move == null) ? null : ai.getLastStats());
+            analysed.incrementAndGet();
+            synchronized (cache) {
+                // Une analyse plus longue de la même position, finie avant, reste en cache
+                Analysis cached = cache.get(key);
+                if (cached == null || !cached.position.equals(pending.position) || cached.timeMs <= timeMs) {
+                    cache.put(key, analysis);
+                }
+            }
+            future.complete(analysis);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            running.remove(key, pending);
+        }
+    }
+
+    /**
+     * Compteurs du serveur, sur une ligne.
+     */
+    public String stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return String.format("analyses %d, cache %d, partagées %d, refusées %d, en attente %d, en mémoire %d",
+                analysed.get(), cacheHits.get(), shared.get(), rejected.get(), workers.getQueue().size(), size);
+    }
+
+    // Un lot de positions par ligne vide ; les réponses suivent l'ordre du lot
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            List<CompletableFuture<String>> batch = new ArrayList<>(); // lignes de réponse à venir
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.equalsIgnoreCase("stats")) {
+                    out.println(stats());
+                    out.flush();
+                } else if (!line.isEmpty()) {
+                    batch.add(request(line));
+                } else if (!batch.isEmpty()) {
+                    reply(batch, out);
+                    batch.clear();
+                }
+            }
+            reply(batch, out);
+        } catch (IOException e) {
+            // Connexion fermée par le client
+        }
+    }
+
+    // La ligne de réponse à une ligne de requête
+    private CompletableFuture<String> request(String line) {
+        String[] fields = line.split("\\s+");
+        String error = check(fields);
+        if (error != null) {
+            return CompletableFuture.completedFuture("erreur " + error);
+        }
+        long timeMs = (fields.length == 83) ? Long.parseLong(fields[82]) : DEFAULT_TIME_MS;
+        String last = fields[81].toUpperCase();
+        Board board = new Board();
+        board.setCells(String.join(" ", Arrays.copyOf(fields, 81)));
+        CompletableFuture<Analysis> future = submit(board, last.equals("A0") ? null : Move.parse(last), timeMs);
+        return (future == null) ? CompletableFuture.completedFuture("occupé") : future.thenApply(Analysis::toLine);
+    }
+
+    // Le problème de la requête, ou null si elle est valide
+    private static String check(String[] fields) {
+        if (fields.length != 82 && fields.length != 83) {
+            return "81 valeurs, le dernier coup et le temps (optionnel) attendus, " + fields.length + " champs reçus";
+        }
+        int x = 0;
+        int o = 0;
+        for (int i = 0; i < 81; i++) {
+            if (fields[i].equals("4")) {
+                x++;
+            } else if (fields[i].equals("2")) {
+                o++;
+            } else if (!fields[i].equals("0")) {
+                return "valeur de case invalide: " + fields[i];
+            }
+        }
+        // X commence : il a autant de pièces que O, ou une de plus
+        if (x != o && x != o + 1) {
+            return "position impossible: " + x + " X et " + o + " O";
+        }
+        String last = fields[81].toUpperCase();
+        if (last.length() != 2 || last.charAt(0) < 'A' || last.charAt(0) > 'I'
+                || last.charAt(1) < '0' || last.charAt(1) > '9' || (last.charAt(1) == '0') != last.equals("A0")) {
+            return "dernier coup invalide: " + fields[81];
+        }
+        // Le dernier coup est une case du joueur qui vient de jouer
+        if (!last.equals("A0")) {
+            Move move = Move.parse(last);
+            String mover = (x == o + 1) ? "4" : "2";
+            if (!fields[move.getRow() * 9 + move.getCol()].equals(mover)) {
+                return "dernier coup invalide: " + fields[81] + " n'est pas une case de " + (mover.equals("4") ? "X" : "O");
+            }
+        }
+        if (fields.length == 83) {
+            long timeMs;
+            try {
+                timeMs = Long.parseLong(fields[82]);
+            } catch (NumberFormatException e) {
+                return "temps invalide: " + fields[82];
+            }
+            if (timeMs <= 0 || timeMs > MAX_TIME_MS) {
+                return "temps hors de ]0, " + MAX_TIME_MS + "]: " + timeMs;
+            }
+        }
+        return null;
+    }
+
+    private static void reply(List<CompletableFuture<String>> batch, PrintWriter out) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (CompletableFuture<String> response : batch) {
+            try {
+                out.println(response.join());
+            } catch (RuntimeException e) {
+                out.println("erreur " + e.getMessage());
+            }
+            // Chaque réponse part dès qu'elle est prête
+            out.flush();
+        }
+        out.println();
+        out.flush();
+    }
+
+    // X commence toujours : le joueur au trait se déduit du nombre de pièces (vérifié par check)
+    private static int sideToMove(BitBoard bits) {
+        int x = 0;
+        int o = 0;
+        for (int b = 0; b < 9; b++) {
+            x += Integer.bitCount(bits.getLocalMask(b, BitBoard.X));
+            o += Integer.bitCount(bits.getLocalMask(b, BitBoard.O));
+        }
+        return (x == o) ? BitBoard.X : BitBoard.O;
+    }
+}
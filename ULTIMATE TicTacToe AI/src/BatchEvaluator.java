@@ -0,0 +1,145 @@
+/**
+ * Évaluation par lots de positions feuilles, avec la même heuristique qu'AIPlayer.evaluate.
+ * Les poids sont fixés à la création du lot : EvalWeights.current() par défaut, ou ceux
+ * d'un joueur réglé par AIPlayer.setEvalWeights (create(capacity, weights)).
+ *
+ * Les positions sont rangées en structure de tableaux : pour chaque plateau local b,
+ * xMasks[b] et oMasks[b] contiennent les masques de ce plateau pour toutes les positions
+ * du lot, côte à côte. Une évaluation parcourt ces tableaux plateau par plateau,
+ * ce qui se prête au calcul vectoriel.
+ *
+ * Cette classe est la version scalaire. create() charge la version de l'API Vector
+ * (VectorBatchEvaluator, sources dans src-vector) si elle a été compilée et que la JVM a
+ * le module jdk.incubator.vector (--add-modules jdk.incubator.vector) ; sinon, c'est celle-ci.
+ *
+ * Un lot n'est pas partagé entre threads.
+ */
+public class BatchEvaluator {
+
+    // Taille de lot par défaut
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final String VECTOR_CLASS = "VectorBatchEvaluator";
+
+    protected final int capacity;
+    protected final int[][] xMasks; // [plateau][position]
+    protected final int[][] oMasks;
+    protected final int[] wonX;     // [position] : plateaux gagnés par X
+    protected final int[] wonO;
+    protected final int[] scores;   // résultat de evaluate, du point de vue de X
+    protected final int[] localScores;
+    protected final int[] globalScores;
+    protected int size;
+
+    protected BatchEvaluator(int capacity, EvalWeights weights) {
+        this.capacity = capacity;
+        this.localScores = weights.localScores();
+        this.globalScores = weights.globalScores();
+        this.xMasks = new int[9][capacity];
+        this.oMasks = new int[9][capacity];
+        this.wonX = new int[capacity];
+        this.wonO = new int[capacity];
+        this.scores = new int[capacity];
+    }
+
+    /**
+     * Un lot de capacity positions, vectoriel si possible, avec les poids EvalWeights.current().
+     */
+    public static BatchEvaluator create(int capacity) {
+        return create(capacity, EvalWeights.current());
+    }
+
+    /**
+     * Un lot de capacity positions, vectoriel si possible, évalué avec weights.
+     */
+    public static BatchEvaluator create(int capacity, EvalWeights weights) {
+        try {
+            return (BatchEvaluator) Class.forName(VECTOR_CLASS)
+                    .getDeclaredConstructor(int.class, EvalWeights.class).newInstance(capacity, weights);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Version vectorielle absente ou module jdk.incubator.vector non chargé
+            return scalar(capacity, weights);
+        }
+    }
+
+    public static BatchEvaluator scalar(int capacity) {
+        return scalar(capacity, EvalWeights.current());
+    }
+
+    public static BatchEvaluator scalar(int capacity, EvalWeights weights) {
+        return new BatchEvaluator(capacity, weights);
+    }
+
+    public String getImplementation() {
+        return "scalaire";
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Ajoute la position au lot.
+     *
+     * @return  Le rang de la position dans le lot (indice de son score)
+     */
+    public int add(BitBoard bits) {
+        if (size == capacity) {
+            throw new IllegalStateException("Lot plein (" + capacity + " positions)");
+        }
+        int i = size++;
+        for (int b = 0; b < 9; b++) {
+            xMasks[b][i] = bits.getLocalMask(b, BitBoard.X);
+            oMasks[b][i] = bits.getLocalMask(b, BitBoard.O);
+        }
+        wonX[i] = bits.getWonMask(BitBoard.X);
+        wonO[i] = bits.getWonMask(BitBoard.O);
+        return i;
+    }
+
+    /**
+     * Évalue toutes les positions du lot.
+     *
+     * @return  Les scores du point de vue de X, aux indices 0 à size() - 1
+     *          (tableau interne, valable jusqu'au prochain appel)
+     */
+    public int[] evaluate() {
+        evaluate(0, size);
+        return scores;
+    }
+
+    /**
+     * Calcule scores[from..to[ comme AIPlayer.evaluate avec les poids du lot :
+     * la somme des scores des 9 plateaux locaux et des lignes de plateaux gagnés, bornée.
+     */
+    protected void evaluate(int from, int to) {
+        int[] ternary = LocalTables.TERNARY;
+        int[] local = localScores;
+        int[] global = globalScores;
+        for (int i = from; i < to; i++) {
+            scores[i] = global[ternary[wonX[i]] + 2 * ternary[wonO[i]]];
+        }
+        for (int b = 0; b < 9; b++) {
+            int[] x = xMasks[b];
+            int[] o = oMasks[b];
+            for (int i = from; i < to; i++) {
+                scores[i] += local[ternary[x[i]] + 2 * ternary[o[i]]];
+            }
+        }
+        for (int i = from; i < to; i++) {
+            scores[i] = Math.max(-EvalWeights.MAX_SCORE, Math.min(EvalWeights.MAX_SCORE, scores[i]));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Positions de milieu de partie enregistrées, communes aux mesures de performance.
+ *
+ * Chaque position est donnée dans l'encodage du serveur : les 81 valeurs du plateau
+ * ligne par ligne (4 = X, 2 = O, 0 = vide), puis le dernier coup joué (ex. "G9").
+ * X commence toujours, le joueur au trait se déduit donc du nombre de pièces.
+ */
+public final class BenchPositions {
+
+    private static final String[][] POSITIONS = {
+            {"4 0 2 0 0 0 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 4 0 0 0 2 0 0 0 2 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 2 0 0", "G9"}, // ply 8
+            {"0 2 0 0 0 4 0 0 0 4 0 0 0 0 0 2 0 0 0 0 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 2 0 2 4 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 2 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0", "B5"}, // ply 10
+            {"0 0 2 0 0 0 0 0 4 0 4 0 0 0 0 2 0 0 0 0 0 0 0 0 2 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 4 0 0 0 0 2 0 0 0 0 2 0 2 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0", "B7"}, // ply 12
+            {"4 0 2 0 0 0 0 2 0 0 0 0 0 0 0 0 0 0 0 0 4 4 0 0 0 4 0 0 0 4 2 0 2 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 2 0 0 0 0 0 0 4 0 0 0 0 2 0 0 2 0 0 0 0 0 0 0 0", "F4"}, // ply 14
+            {"4 2 0 4 0 4 0 0 2 0 0 0 0 0 0 0 0 4 0 2 0 0 0 0 0 0 0 0 0 0 2 2 0 0 0 0 0 4 0 0 4 0 0 0 0 0 0 0 0 0 0 2 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 2 0 0 4 0 2 0 0 0 0 0 4", "B3"}, // ply 16
+            {"0 0 4 0 2 0 4 0 2 0 0 2 0 4 0 0 0 0 0 0 0 0 0 0 2 0 4 0 0 4 0 4 2 0 0 0 0 0 0 0 0 2 0 4 0 0 0 0 0 0 0 4 0 0 0 0 0 0 0 0 2 0 0 2 0 0 0 0 0 0 0 0 0 0 4 0 0 0 0 0 2", "I9"}, // ply 18
+            {"4 0 2 0 0 0 0 0 2 0 0 0 0 0 0 4 4 0 4 0 0 4 0 0 0 0 0 0 0 0 2 2 0 0 0 0 0 0 0 0 4 0 0 0 0 2 0 4 0 0 0 0 0 0 0 0 4 0 0 0 2 0 0 0 0 0 2 0 0 0 2 0 0 2 2 0 0 4 0 4 0", "H8"}, // ply 20
+            {"4 0 2 0 4 0 0 0 4 0 0 0 0 0 0 0 0 0 4 0 0 2 0 0 2 0 4 2 0 0 2 0 0 0 0 0 4 0 0 2 4 0 0 0 0 0 0 0 0 4 0 0 0 0 0 2 2 0 2 0 0 0 0 0 4 0 0 0 0 0 2 0 0 0 4 0 0 0 4 0 2", "E7"}, // ply 22
+            {"4 0 2 0 0 0 0 0 4 0 0 4 0 0 0 0 0 0 2 0 0 0 0 4 2 0 2 0 0 0 2 0 4 0 0 0 4 0 0 2 4 0 2 0 0 4 2 0 0 0 0 0 0 0 4 0 0 0 2 0 2 0 0 0 2 0 0 4 0 0 0 0 2 4 0 0 0 0 4 0 0", "A3"}, // ply 24
+            {"4 0 2 2 0 2 4 2 0 0 0 4 0 4 0 0 0 0 0 0 2 0 0 0 0 2 4 0 4 0 2 0 0 0 0 0 0 0 0 0 4 0 2 0 0 0 0 0 4 2 2 0 0 0 0 0 0 0 0 4 0 4 4 0 4 0 0 0 0 2 2 0 2 0 0 0 0 4 0 0 0", "G8"}, // ply 26
+            {"2 0 0 0 0 2 0 4 0 2 4 0 0 0 0 2 0 0 4 0 0 2 0 2 0 4 4 4 0 0 0 4 4 0 0 2 0 4 0 0 0 0 0 0 0 0 0 0 2 0 2 0 0 0 2 4 2 0 0 0 4 0 0 0 0 0 0 2 0 2 0 4 0 0 4 4 0 0 0 2 0", "A2"}, // ply 28
+            {"0 0 0 0 4 4 4 0 0 0 4 4 0 2 0 2 2 0 2 0 2 0 2 2 0 0 0 2 0 0 2 4 2 4 2 4 0 0 0 0 4 2 0 0 0 4 0 0 0 0 4 0 0 0 0 4 0 0 0 0 0 2 0 0 0 2 0 4 0 4 2 0 0 0 0 0 0 0 0 0 4", "H8"}, // ply 30
+            {"0 0 0 0 0 0 4 2 0 0 0 4 2 0 2 0 0 0 2 2 2 0 0 4 0 2 0 0 0 0 2 4 0 4 0 2 0 4 2 4 4 0 4 0 0 0 0 2 2 0 0 4 0 0 4 0 0 0 4 4 0 0 4 0 0 2 0 2 0 2 2 0 4 0 2 0 0 0 0 4 4", "D2"}, // ply 34
+            {"0 2 4 0 0 0 2 4 0 0 0 0 2 4 0 4 0 0 4 2 0 2 0 0 4 2 2 4 4 4 4 0 0 0 0 2 0 0 0 2 2 2 0 0 0 0 0 2 0 0 4 4 4 0 0 2 2 0 0 2 2 0 4 2 4 2 0 0 4 0 4 0 0 0 0 0 0 4 4 0 2", "B7"}, // ply 38
+            {"0 2 4 0 0 0 4 0 2 0 4 2 2 4 4 0 4 0 4 2 0 0 0 0 2 0 4 2 2 0 4 0 2 2 0 4 4 4 4 4 0 2 2 4 0 0 4 0 0 0 2 2 4 0 2 0 0 0 0 0 4 0 2 0 2 0 2 2 0 0 0 2 4 0 2 4 0 0 0 0 4", "G6"}, // ply 42
+            {"2 4 2 4 2 0 2 0 0 0 4 0 4 0 0 4 2 0 0 4 2 4 2 0 4 2 4 0 0 2 2 0 4 4 4 4 0 4 2 2 0 0 0 0 0 0 0 4 2 2 4 0 0 0 4 2 0 0 0 2 4 2 0 0 4 0 0 4 2 2 4 2 0 0 2 0 4 2 2 0 4", "C4"}  // ply 46
+    };
+
+    private BenchPositions() {
+    }
+
+    public static int size() {
+        return POSITIONS.length;
+    }
+
+    public static Board board(int i) {
+        Board board = new Board();
+        board.setCells(POSITIONS[i][0]);
+        return board;
+    }
+
+    public static Move lastMove(int i) {
+        return Move.parse(POSITIONS[i][1]);
+    }
+
+    public static Mark sideToMove(int i) {
+        int x = 0;
+        int o = 0;
+        for (String v : POSITIONS[i][0].split(" ")) {
+            if (v.equals("4")) x++;
+            else if (v.equals("2")) o++;
+        }
+        return (x == o) ? Mark.X : Mark.O;
+    }
+}
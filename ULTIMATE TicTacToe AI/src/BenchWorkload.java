@@ -0,0 +1,129 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opérations mesurées par Benchmark et par les benchmarks JMH (voir bench.Workload),
+ * sur les positions de BenchPositions.
+ */
+public class BenchWorkload implements bench.Workload {
+
+    private final int n = BenchPositions.size();
+    private final Board[] boards = new Board[n];
+    private final BitBoard[] bits = new BitBoard[n];
+    private final Move[] lastMoves = new Move[n];
+    private final int[] lasts = new int[n];
+    private final Mark[] sides = new Mark[n];
+    private final List<List<Move>> boardMoves = new ArrayList<>();
+    private final int[] buffer = new int[81];
+    private final AIPlayer evaluator = new AIPlayer(Mark.X, 0, 1);
+
+    // Table de la recherche : petite, car elle est vidée avant chaque recherche
+    private static final int SEARCH_HASH_MB = 16;
+
+    // Un joueur par couleur, créé avant les mesures pour ne pas compter l'allocation de la table
+    private final AIPlayer[] searchers = new AIPlayer[2];
+
+    public BenchWorkload() {
+        for (int i = 0; i < n; i++) {
+            boards[i] = BenchPositions.board(i);
+            bits[i] = new BitBoard(boards[i]);
+            lastMoves[i] = BenchPositions.lastMove(i);
+            lasts[i] = BitBoard.index(lastMoves[i].getRow(), lastMoves[i].getCol());
+            sides[i] = BenchPositions.sideToMove(i);
+            boardMoves.add(boards[i].generateMoves(lastMoves[i], sides[i]));
+        }
+    }
+
+    @Override
+    public int positions() {
+        return n;
+    }
+
+    @Override
+    public long boardPlayUnplay() {
+        long ops = 0;
+        for (int i = 0; i < n; i++) {
+            for (Move m : boardMoves.get(i)) {
+                boards[i].play(m.getRow(), m.getCol(), sides[i]);
+                boards[i].unplay(m.getRow(), m.getCol());
+                ops++;
+            }
+        }
+        return ops;
+    }
+
+    @Override
+    public long bitboardPlayUnplay() {
+        long ops = 0;
+        for (int i = 0; i < n; i++) {
+            int player = BitBoard.player(sides[i]);
+            int count = bits[i].generateMoves(lasts[i], buffer, 0);
+            for (int k = 0; k < count; k++) {
+                bits[i].play(buffer[k], player);
+                bits[i].unplay(buffer[k]);
+            }
+            ops += count;
+        }
+        return ops;
+    }
+
+    @Override
+    public long boardGenerateMoves() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += boards[i].generateMoves(lastMoves[i], sides[i]).size();
+        }
+        return sum;
+    }
+
+    @Override
+    public long bitboardGenerateMoves() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += bits[i].generateMoves(lasts[i], buffer, 0);
+        }
+        return sum;
+    }
+
+    @Override
+    public long boardCheckGlobalWinner() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += boards[i].checkGlobalWinner().ordinal();
+        }
+        return sum;
+    }
+
+    @Override
+    public long bitboardCheckGlobalWinner() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += bits[i].checkGlobalWinner();
+        }
+        return sum;
+    }
+
+    @Override
+    public long evaluate() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += evaluator.evaluate(bits[i]);
+        }
+        return sum;
+    }
+
+    @Override
+    public long search(int i, int depth) {
+        int side = (sides[i] == Mark.X) ? 0 : 1;
+        if (searchers[side] == null) {
+            // Sans limite de temps ni résolution exacte : la profondeur seule fixe le travail
+            searchers[side] = new AIPlayer(sides[i], Long.MAX_VALUE / 4, SEARCH_HASH_MB);
+            searchers[side].setSolverThreshold(0);
+        }
+        AIPlayer ai = searchers[side];
+        ai.setDepthLimit(depth);
+        ai.getTable().clear();
+        ai.getBestMove(boards[i], lastMoves[i]);
+        return ai.getNodes();
+    }
+}
@@ -0,0 +1,231 @@
+import bench.Workload;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mesures de performance des opérations du plateau et de la recherche,
+ * sur les positions enregistrées de BenchPositions.
+ *
+ * Chaque mesure fait des itérations de chauffe (pour le JIT) puis des itérations
+ * mesurées, et affiche le débit, les octets alloués par opération et l'activité
+ * du GC pendant la mesure.
+ *
+ * Les opérations mesurées sont celles de bench.Workload, communes aux benchmarks JMH (src-jmh,
+ * profil Maven jmh) ; cette classe n'y ajoute que la boucle de chauffe et de mesure, pour quand
+ * Maven ou ses dépendances ne sont pas disponibles, et la mesure de BatchEvaluator.
+ *
+ * Usage : java Benchmark [filtre]   (ex. "bitboard" pour ne lancer que ces mesures)
+ */
+public class Benchmark {
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final long ITERATION_NS = 1_000_000_000L;
+
+    // Profondeur de la mesure de la recherche complète (celle de SearchBenchmark par défaut)
+    private static final int SEARCH_DEPTH = 9;
+
+    // Empêche le JIT d'éliminer les calculs dont le résultat n'est pas utilisé
+    private static long sink;
+
+    /**
+     * Une opération mesurée : retourne le nombre d'opérations élémentaires effectuées.
+     */
+    private interface Operation {
+        long run();
+    }
+
+    public static void main(String[] args) {
+        String filter = (args.length > 0) ? args[0] : "";
+
+        // Les opérations mesurées sont celles des benchmarks JMH (bench.Workload)
+        Workload workload = new BenchWorkload();
+        int n = workload.positions();
+
+        System.out.printf("%d positions, %d itérations de chauffe, %d mesurées de %d ms%n",
+                n, WARMUP_ITERATIONS, MEASURE_ITERATIONS, ITERATION_NS / 1_000_000);
+        System.out.printf("%-28s %16s %14s %10s %10s%n", "mesure", "ops/s", "octets/op", "GC", "GC (ms)");
+
+        run(filter, "board.playUnplay", workload::boardPlayUnplay);
+        run(filter, "bitboard.playUnplay", workload::bitboardPlayUnplay);
+        run(filter, "board.generateMoves", () -> {
+            sink += workload.boardGenerateMoves();
+            return n;
+        });
+        run(filter, "bitboard.generateMoves", () -> {
+            sink += workload.bitboardGenerateMoves();
+            return n;
+        });
+        run(filter, "board.checkGlobalWinner", () -> {
+            sink += workload.boardCheckGlobalWinner();
+            return n;
+        });
+        run(filter, "bitboard.checkGlobalWinner", () -> {
+            sink += workload.bitboardCheckGlobalWinner();
+            return n;
+        });
+        run(filter, "ai.evaluate", () -> {
+            sink += workload.evaluate();
+            return n;
+        });
+
+        // Évaluation par lots des feuilles, en version scalaire puis vectorielle si elle est chargée
+        List<BitBoard> leaves = leafPositions();
+        AIPlayer evaluator = new AIPlayer(Mark.X, 0, 1);
+        List<BatchEvaluator> batches = new ArrayList<>();
+        batches.add(BatchEvaluator.scalar(BatchEvaluator.DEFAULT_CAPACITY));
+        BatchEvaluator vector = BatchEvaluator.create(BatchEvaluator.DEFAULT_CAPACITY);
+        if (vector.getClass() != BatchEvaluator.class) {
+            batches.add(vector);
+        }
+        for (BatchEvaluator batch : batches) {
+            String name = "batch." + ((batch == vector) ? "vector" : "scalar");
+            if (!matches(filter, name + ".evaluate") && !matches(filter, name + ".add+evaluate")) {
+                continue;
+            }
+            checkBatch(batch, leaves, evaluator);
+            System.out.printf("  %s : %s, lots de %d positions%n", name, batch.getImplementation(), batch.size());
+            run(filter, name + ".evaluate", () -> {
+                int[] scores = batch.evaluate();
+                sink += scores[0];
+                return batch.size();
+            });
+            run(filter, name + ".add+evaluate", () -> {
+                batch.clear();
+                for (BitBoard leaf : leaves) {
+                    batch.add(leaf);
+                }
+                sink += batch.evaluate()[0];
+                return batch.size();
+            });
+        }
+
+        if (matches(filter, "ai.search")) {
+            searchBenchmark(workload);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    // Feuilles à deux demi-coups des positions de BenchPositions, de quoi remplir un lot
+    private static List<BitBoard> leafPositions() {
+        List<BitBoard> leaves = new ArrayList<>();
+        for (int i = 0; i < BenchPositions.size(); i++) {
+            BitBoard bits = new BitBoard(BenchPositions.board(i));
+            Move last = BenchPositions.lastMove(i);
+            int player = BitBoard.player(BenchPositions.sideToMove(i));
+            for (int move : bits.generateMoves(BitBoard.index(last.getRow(), last.getCol()))) {
+                BitBoard child = new BitBoard(bits);
+                child.play(move, player);
+                for (int reply : child.generateMoves(move)) {
+                    if (leaves.size() == BatchEvaluator.DEFAULT_CAPACITY) {
+                        return leaves;
+                    }
+                    BitBoard leaf = new BitBoard(child);
+                    leaf.play(reply, BitBoard.opponent(player));
+                    leaves.add(leaf);
+                }
+            }
+        }
+        return leaves;
+    }
+
+    // Remplit le lot avec les feuilles et vérifie ses scores contre AIPlayer.evaluate (joueur X)
+    private static void checkBatch(BatchEvaluator batch, List<BitBoard> leaves, AIPlayer evaluator) {
+        batch.clear();
+        for (BitBoard leaf : leaves) {
+            batch.add(leaf);
+        }
+        int[] scores = batch.evaluate();
+        for (int i = 0; i < leaves.size(); i++) {
+            if (scores[i] != evaluator.evaluate(leaves.get(i))) {
+                throw new IllegalStateException("Évaluation par lots (" + batch.getImplementation()
+                        + ") différente pour la feuille " + i);
+            }
+        }
+    }
+
+    private static boolean matches(String filter, String name) {
+        return filter.isEmpty() || name.contains(filter);
+    }
+
+    private static void run(String filter, String name, Operation op) {
+        if (!matches(filter, name)) {
+            return;
+        }
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(op);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocatedBytes(threadId);
+        long gcCountBefore = Telemetry.gcCount();
+        long gcTimeBefore = Telemetry.gcTimeMs();
+        long ops = 0;
+        long elapsed = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            ops += iteration(op);
+            elapsed += System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-28s %16.0f %14.1f %10d %10d%n", name,
+                ops * 1e9 / elapsed, (double) allocated / ops,
+                Telemetry.gcCount() - gcCountBefore, Telemetry.gcTimeMs() - gcTimeBefore);
+    }
+
+    // Répète l'opération pendant environ ITERATION_NS
+    private static long iteration(Operation op) {
+        long ops = 0;
+        long end = System.nanoTime() + ITERATION_NS;
+        while (System.nanoTime() < end) {
+            ops += op.run();
+        }
+        return ops;
+    }
+
+    /**
+     * Recherche complète : noeuds par seconde de getBestMove à profondeur fixe sur chaque position.
+     * Des passes de chauffe, pendant le temps des itérations de chauffe des autres mesures,
+     * précèdent une passe mesurée.
+     */
+    private static void searchBenchmark(Workload workload) {
+        long warmupEnd = System.nanoTime() + WARMUP_ITERATIONS * ITERATION_NS;
+        while (System.nanoTime() < warmupEnd) {
+            searchPass(workload);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocatedBytes(threadId);
+        long gcCountBefore = Telemetry.gcCount();
+        long gcTimeBefore = Telemetry.gcTimeMs();
+        long start = System.nanoTime();
+        long nodes = searchPass(workload);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-28s %16.0f %14.1f %10d %10d   (noeuds/s)%n", "ai.search",
+                nodes * 1e9 / elapsed, (double) allocated / nodes,
+                Telemetry.gcCount() - gcCountBefore, Telemetry.gcTimeMs() - gcTimeBefore);
+    }
+
+    private static long searchPass(Workload workload) {
+        long nodes = 0;
+        for (int i = 0; i < workload.positions(); i++) {
+            nodes += workload.search(i, SEARCH_DEPTH);
+        }
+        return nodes;
+    }
+
+    private static long allocatedBytes(long threadId) {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+        }
+        return 0;
+    }
+}
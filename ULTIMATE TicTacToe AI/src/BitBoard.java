@@ -0,0 +1,376 @@
+/**
+ * Représentation compacte du plateau 9x9, utilisée par la recherche.
+ *
+ * Les cases sont indexées plateau local par plateau local :
+ * index = plateau * 9 + case, où plateau = (ligne / 3) * 3 + colonne / 3
+ * et case = (ligne % 3) * 3 + colonne % 3.
+ * Chaque joueur a un masque de 9 bits par plateau local, et l'état des
+ * 9 plateaux locaux (fermé, gagné par X, gagné par O) tient dans des masques de 9 bits.
+ */
+public class BitBoard {
+
+    public static final int X = 0;
+    public static final int O = 1;
+    public static final int EMPTY = -1;
+
+    // Masque d'une grille 3x3 pleine
+    public static final int FULL = 0x1FF;
+
+    // Les 8 lignes gagnantes d'une grille 3x3 (3 lignes, 3 colonnes, 2 diagonales)
+    public static final int[] LINES = {
+            0x007, 0x038, 0x1C0,
+            0x049, 0x092, 0x124,
+            0x111, 0x054
+    };
+
+    // WINS[m] est vrai si le masque m contient au moins une ligne complète
+    private static final boolean[] WINS = new boolean[512];
+
+    static {
+        for (int m = 0; m < 512; m++) {
+            for (int line : LINES) {
+                if ((m & line) == line) {
+                    WINS[m] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Clés de Zobrist : une par (joueur, case), une par plateau visé (9 = libre) et une pour le trait à O.
+    // La graine est fixe pour que les clés restent les mêmes d'une exécution à l'autre.
+    private static final long[] ZOBRIST = new long[2 * 81];
+    private static final long[] ZOBRIST_TARGET = new long[10];
+    private static final long ZOBRIST_SIDE;
+
+    static {
+        java.util.SplittableRandom random = new java.util.SplittableRandom(0x9E3779B97F4A7C15L);
+        for (int i = 0; i < ZOBRIST.length; i++) {
+            ZOBRIST[i] = random.nextLong();
+        }
+        for (int i = 0; i < ZOBRIST_TARGET.length; i++) {
+            ZOBRIST_TARGET[i] = random.nextLong();
+        }
+        ZOBRIST_SIDE = random.nextLong();
+    }
+
+    private final int[] cells = new int[18]; // X : 0..8, O : 9..17
+    private final int[] won = new int[2];    // plateaux locaux gagnés par X et par O
+    private int closed;                      // plateaux locaux fermés (gagnés ou pleins)
+    private long hash;                       // hachage de Zobrist des cases occupées
+    private int stones;                      // nombre de cases occupées
+
+    // Positions d'au plus SYMMETRY_STONES pièces : leur clé canonique (voir symmetry) est calculée.
+    // Au-delà, les positions symétriques l'une de l'autre sont trop rares pour payer ce calcul.
+    public static final int SYMMETRY_STONES = 10;
+
+    public BitBoard() {
+    }
+
+    /**
+     * Construit l'état compact à partir du plateau objet du client.
+     * Le statut de chaque plateau local est recalculé à partir des cases.
+     */
+    public BitBoard(Board board) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                Mark m = board.getLocalBoard(row / 3, col / 3).getCell(row % 3, col % 3);
+                if (m != Mark.EMPTY) {
+                    int idx = index(row, col);
+                    cells[player(m) * 9 + idx / 9] |= 1 << (idx % 9);
+                    hash ^= ZOBRIST[player(m) * 81 + idx];
+                    stones++;
+                }
+            }
+        }
+        for (int b = 0; b < 9; b++) {
+            updateStatus(b);
+        }
+    }
+
+    public BitBoard(BitBoard other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Remplace l'état de ce plateau par celui de other, sans allocation.
+     */
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        won[X] = other.won[X];
+        won[O] = other.won[O];
+        closed = other.closed;
+        hash = other.hash;
+        stones = other.stones;
+    }
+
+    public static int player(Mark m) {
+        return (m == Mark.X) ? X : O;
+    }
+
+    public static int opponent(int player) {
+        return 1 - player;
+    }
+
+    // Convertit (ligne, colonne) du plateau 9x9 en index compact
+    public static int index(int row, int col) {
+        return ((row / 3) * 3 + col / 3) * 9 + (row % 3) * 3 + col % 3;
+    }
+
+    public static int rowOf(int idx) {
+        return (idx / 9 / 3) * 3 + (idx % 9) / 3;
+    }
+
+    public static int colOf(int idx) {
+        return (idx / 9 % 3) * 3 + (idx % 9) % 3;
+    }
+
+    public static boolean isWin(int mask) {
+        return WINS[mask];
+    }
+
+    public void play(int idx, int player) {
+        int b = idx / 9;
+        int k = player * 9 + b;
+        cells[k] |= 1 << (idx % 9);
+        hash ^= ZOBRIST[player * 81 + idx];
+        stones++;
+        if (WINS[cells[k]]) {
+            won[player] |= 1 << b;
+            closed |= 1 << b;
+        } else if ((cells[b] | cells[9 + b]) == FULL) {
+            closed |= 1 << b;
+        }
+    }
+
+    public void unplay(int idx) {
+        int b = idx / 9;
+        int bit = 1 << (idx % 9);
+        hash ^= ZOBRIST[((cells[b] & bit) != 0 ? X : O) * 81 + idx];
+        cells[b] &= ~bit;
+        cells[9 + b] &= ~bit;
+        stones--;
+        // Un coup n'est légal que dans un plateau ouvert : il l'était avant ce coup
+        int boardBit = ~(1 << b);
+        won[X] &= boardBit;
+        won[O] &= boardBit;
+        closed &= boardBit;
+    }
+
+    private void updateStatus(int b) {
+        int boardBit = 1 << b;
+        won[X] &= ~boardBit;
+        won[O] &= ~boardBit;
+        closed &= ~boardBit;
+        if (WINS[cells[b]]) {
+            won[X] |= boardBit;
+            closed |= boardBit;
+        } else if (WINS[cells[9 + b]]) {
+            won[O] |= boardBit;
+            closed |= boardBit;
+        } else if ((cells[b] | cells[9 + b]) == FULL) {
+            closed |= boardBit;
+        }
+    }
+
+    /**
+     * Hachage des cases seules, mis à jour incrémentalement par play et unplay.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Clé complète d'une position : les cases, le plateau visé par lastMove et le joueur au trait.
+     * Deux positions avec les mêmes cases mais une contrainte d'envoi différente n'ont pas les mêmes coups.
+     */
+    public long key(int lastMove, int player) {
+        long k = hash ^ ZOBRIST_TARGET[target(lastMove)];
+        return (player == O) ? k ^ ZOBRIST_SIDE : k;
+    }
+
+    /**
+     * Clé de la position vue à travers la symétrie sym : c'est la clé de la position image,
+     * dont les coups sont les images par sym de ceux de cette position.
+     */
+    public long key(int lastMove, int player, int sym) {
+        if (sym == Symmetry.IDENTITY) {
+            return key(lastMove, player);
+        }
+        long k = symmetricHash(sym) ^ ZOBRIST_TARGET[Symmetry.square(sym, target(lastMove))];
+        return (player == O) ? k ^ ZOBRIST_SIDE : k;
+    }
+
+    /**
+     * Symétrie qui mène à la forme canonique de la position : celle des 8 images (cases et
+     * plateau visé) dont la clé est la plus petite. Les positions symétriques l'une de l'autre
+     * ont ainsi la même clé key(lastMove, player, symmetry(lastMove)) et partagent leurs
+     * entrées dans la table de transposition.
+     * Au-delà de SYMMETRY_STONES pièces, on garde la position telle quelle (IDENTITY).
+     */
+    public int symmetry(int lastMove) {
+        if (stones > SYMMETRY_STONES) {
+            return Symmetry.IDENTITY;
+        }
+        int target = target(lastMove);
+        int best = Symmetry.IDENTITY;
+        long bestKey = hash ^ ZOBRIST_TARGET[target];
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            long k = symmetricHash(s) ^ ZOBRIST_TARGET[Symmetry.square(s, target)];
+            if (k < bestKey) {
+                bestKey = k;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Symétries (hors identité) qui laissent la position inchangée, cases et plateau visé :
+     * le bit s est levé si la symétrie s envoie la position sur elle-même.
+     * Deux coups images l'un de l'autre par une de ces symétries se valent.
+     */
+    public int invariantSymmetries(int lastMove) {
+        int target = target(lastMove);
+        int invariant = 0;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (Symmetry.square(s, target) != target) {
+                continue;
+            }
+            boolean same = true;
+            for (int k = 0; k < 18 && same; k++) {
+                int b = k % 9;
+                same = cells[k - b + Symmetry.square(s, b)] == Symmetry.mask(s, cells[k]);
+            }
+            if (same) {
+                invariant |= 1 << s;
+            }
+        }
+        return invariant;
+    }
+
+    // Hachage de Zobrist des cases de la position image par sym
+    private long symmetricHash(int sym) {
+        long h = 0;
+        for (int k = 0; k < 18; k++) {
+            int player = k / 9;
+            int b = k % 9;
+            int mask = cells[k];
+            while (mask != 0) {
+                int idx = b * 9 + Integer.numberOfTrailingZeros(mask);
+                h ^= ZOBRIST[player * 81 + Symmetry.cell(sym, idx)];
+                mask &= mask - 1;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * @return  Le plateau local imposé par lastMove, ou 9 si le joueur peut jouer partout
+     */
+    public int target(int lastMove) {
+        if (lastMove < 0 || isClosed(lastMove % 9)) {
+            return 9;
+        }
+        return lastMove % 9;
+    }
+
+    public int getCell(int idx) {
+        int bit = 1 << (idx % 9);
+        if ((cells[idx / 9] & bit) != 0) return X;
+        if ((cells[9 + idx / 9] & bit) != 0) return O;
+        return EMPTY;
+    }
+
+    public int getLocalMask(int b, int player) {
+        return cells[player * 9 + b];
+    }
+
+    public int getWonMask(int player) {
+        return won[player];
+    }
+
+    public int getClosedMask() {
+        return closed;
+    }
+
+    public boolean isClosed(int b) {
+        return (closed & (1 << b)) != 0;
+    }
+
+    public int getLocalWinner(int b) {
+        if ((won[X] & (1 << b)) != 0) return X;
+        if ((won[O] & (1 << b)) != 0) return O;
+        return EMPTY;
+    }
+
+    public int checkGlobalWinner() {
+        if (WINS[won[X]]) return X;
+        if (WINS[won[O]]) return O;
+        return EMPTY;
+    }
+
+    public boolean isGlobalClosed() {
+        return closed == FULL;
+    }
+
+    /**
+     * Génère les coups légaux après le coup lastMove (index compact, ou -1 si libre).
+     * Version qui alloue un tableau, pour les appels hors de la recherche.
+     */
+    public int[] generateMoves(int lastMove) {
+        int[] moves = new int[81];
+        int count = generateMoves(lastMove, moves, 0);
+        return java.util.Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Écrit les coups légaux après le coup lastMove dans moves, à partir de offset,
+     * sans aucune allocation. Il faut prévoir 81 places.
+     * Le plateau visé est celui de la case jouée ; s'il est fermé, tous les plateaux ouverts sont permis.
+     *
+     * @return  Le nombre de coups écrits
+     */
+    public int generateMoves(int lastMove, int[] moves, int offset) {
+        int count = offset;
+        int target = target(lastMove);
+
+        if (target == 9) {
+            for (int b = 0; b < 9; b++) {
+                if (!isClosed(b)) {
+                    count = addMoves(b, moves, count);
+                }
+            }
+        } else {
+            count = addMoves(target, moves, count);
+        }
+        return count - offset;
+    }
+
+    /**
+     * Nombre de coups légaux après lastMove, comme generateMoves mais sans les écrire :
+     * une somme de cases vides par plateau (comptage en bloc du dernier niveau de Perft).
+     */
+    public int countMoves(int lastMove) {
+        int target = target(lastMove);
+        if (target != 9) {
+            return Integer.bitCount(~(cells[target] | cells[9 + target]) & FULL);
+        }
+        int count = 0;
+        for (int b = 0; b < 9; b++) {
+            if (!isClosed(b)) {
+                count += Integer.bitCount(~(cells[b] | cells[9 + b]) & FULL);
+            }
+        }
+        return count;
+    }
+
+    private int addMoves(int b, int[] moves, int count) {
+        int empty = ~(cells[b] | cells[9 + b]) & FULL;
+        while (empty != 0) {
+            moves[count++] = b * 9 + Integer.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+        }
+        return count;
+    }
+}
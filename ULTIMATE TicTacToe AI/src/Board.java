@@ -102,6 +102,41 @@ public class Board {
         boards[br][bc].unplay(lr, lc);
     }
 
+    // Remplit le plateau à partir des 81 valeurs du serveur, ligne par ligne (4 = X, 2 = O, 0 = vide)
+    public void setCells(String values) {
+        String[] boardValues = values.trim().split("\\s+");
+        int index = 0;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int val = Integer.parseInt(boardValues[index]);
+                index++;
+                Mark m;
+                if (val == 4)      m = Mark.X;
+                else if (val == 2) m = Mark.O;
+                else               m = Mark.EMPTY;
+                setCellGlobal(row, col, m);
+            }
+        }
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                boards[r][c].refreshStatus();
+            }
+        }
+    }
+
+    // Encodage inverse de setCells
+    public String toValues() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                Mark m = boards[row / 3][col / 3].getCell(row % 3, col % 3);
+                if (sb.length() > 0) sb.append(' ');
+                sb.append(m == Mark.X ? 4 : m == Mark.O ? 2 : 0);
+            }
+        }
+        return sb.toString();
+    }
+
     public void setCellGlobal(int gr, int gc, Mark mark) {
         int br = gr / 3;
         int bc = gc / 3;
@@ -1,172 +1,307 @@
-import java.io.*;
-import java.net.*;
-import javax.swing.JOptionPane;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Function;
 
 public class Client {
 
-    private static Board globalBoard; // Plateau 9x9
-    private static AIPlayer ai;         // Ton IA (Alpha-Beta/Minimax)
-    private static Mark cpuMark;        // Ta marque (X ou O)
-    private static Mark opponentMark;   // Marque de l'adversaire
-    private static Move lastMove;       // Dernier coup joué
+    private final Function<Mark, Player> engines; // Crée l'IA d'une partie pour une marque
+    private final boolean ponder;
+    private final boolean verbose;
+
+    private Board globalBoard; // Plateau 9x9
+    private Player ai;           // Ton IA (Alpha-Beta ou MCTS)
+    private Mark cpuMark;        // Ta marque (X ou O)
+    private Mark opponentMark;   // Marque de l'adversaire
+    private Move lastMove;       // Dernier coup joué
+    private Warmup warmup;       // Préchauffage en cours (null si aucun)
+    private final Player[] prepared = new Player[2]; // IA de la prochaine partie, pour X puis O
+
+    // Port du serveur de jeu
+    public static final int PORT = 8888;
+
+    // Mémoire de la table de transposition (Mo), réglable avec -Dttt.hashMb=...
+    private static final int HASH_MB = Integer.getInteger("ttt.hashMb", AIPlayer.DEFAULT_HASH_MB);
+
+    // Nombre de threads de recherche, réglable avec -Dttt.threads=...
+    private static final int THREADS = Integer.getInteger("ttt.threads", 1);
+
+    // Moteur de jeu : "alphabeta" (défaut) ou "mcts", réglable avec -Dttt.engine=...
+    private static final String ENGINE = System.getProperty("ttt.engine", "alphabeta");
+
+    // Temps accordé par le serveur pour chaque coup (ms), réglable avec -Dttt.timeMs=...
+    private static final long TIME_LIMIT_MS = Long.getLong("ttt.timeMs", 3000);
+
+    // Marge gardée sur ce temps pour la latence du réseau (ms), réglable avec -Dttt.marginMs=...
+    private static final long MARGIN_MS = Long.getLong("ttt.marginMs", TimeManager.DEFAULT_MARGIN_MS);
+
+    // Réflexion sur le temps de l'adversaire, activée avec -Dttt.ponder=true
+    private static final boolean PONDER = Boolean.getBoolean("ttt.ponder");
+
+    // Cases libres en dessous desquelles Alpha-Beta résout la fin de partie, réglable avec -Dttt.solverEmpty=...
+    private static final int SOLVER_EMPTY = Integer.getInteger("ttt.solverEmpty", EndgameSolver.DEFAULT_THRESHOLD);
+
+    // Préchauffage du JIT pendant la connexion (ms), réglable avec -Dttt.warmupMs=... (0 pour désactiver)
+    private static final long WARMUP_MS = Long.getLong("ttt.warmupMs", Warmup.DEFAULT_BUDGET_MS);
+
+    // Livre d'ouvertures (-Dttt.book=..., opening.book par défaut), partagé par toutes les parties
+    private static final OpeningBook BOOK = OpeningBook.openDefault();
+
+    /**
+     * @param engines  Crée l'IA de chaque partie, pour la marque reçue du serveur
+     * @param ponder   Réfléchir pendant le temps de l'adversaire
+     * @param verbose  Afficher les commandes et les coups
+     */
+    public Client(Function<Mark, Player> engines, boolean ponder, boolean verbose) {
+        this.engines = engines;
+        this.ponder = ponder;
+        this.verbose = verbose;
+    }
 
     public static void main(String[] args) {
-        // Détermine l'adresse IP du serveur
-        String serverIP = "localhost";
-        if (args.length > 0) {
-            serverIP = args[0];
-        } else {
-            serverIP = JOptionPane.showInputDialog(null,
-                    "Entrez l'adresse IP du serveur :", "Configuration",
-                    JOptionPane.QUESTION_MESSAGE);
-            if (serverIP == null || serverIP.trim().isEmpty()) {
-                serverIP = "localhost";
-            }
+        // Adresse IP du serveur : premier argument, sinon -Dttt.host, sinon localhost
+        // (pas de boîte de dialogue : le client démarre sans charger Swing)
+        String serverIP = (args.length > 0) ? args[0] : System.getProperty("ttt.host", "localhost");
+        System.out.println("Connexion au serveur: " + serverIP + " sur le port " + PORT);
+
+        // Le JIT s'entraîne pendant la connexion et l'attente de la première commande
+        Warmup warmup = null;
+        if (WARMUP_MS > 0) {
+            warmup = new Warmup(WARMUP_MS);
+            warmup.start();
         }
-        System.out.println("Connexion au serveur: " + serverIP + " sur le port 8888");
 
-        Socket myClient;
-        BufferedInputStream input;
-        BufferedOutputStream output;
+        // Moteur configuré par les propriétés système (-Dttt.engine, -Dttt.hashMb, ...),
+        // avec le cache de recherche des parties précédentes (-Dttt.cache)
+        PersistentCache cache = PersistentCache.openDefault();
+        Client client = new Client(mark -> {
+            Player player = createEngine(ENGINE, mark, TIME_LIMIT_MS, HASH_MB, THREADS);
+            player.setPersistentCache(cache);
+            return player;
+        }, PONDER, true);
+        client.setWarmup(warmup);
+        client.play(serverIP, PORT);
+    }
 
-        try {
-            myClient = new Socket(serverIP, 8888);
-            input  = new BufferedInputStream(myClient.getInputStream());
-            output = new BufferedOutputStream(myClient.getOutputStream());
+    /**
+     * Préchauffage à arrêter avant la première recherche (déjà lancé, ou null).
+     */
+    public void setWarmup(Warmup warmup) {
+        this.warmup = warmup;
+    }
 
+    /**
+     * Crée une IA à partir du nom du moteur ("alphabeta" ou "mcts").
+     * "alphabeta:fichier" utilise les poids d'évaluation de ce fichier (voir Tuner).
+     */
+    public static Player createEngine(String engine, Mark mark, long timeLimitMs, int hashMb, int threads) {
+        Player player;
+        if (engine.equalsIgnoreCase("mcts")) {
+            player = new MCTSPlayer(mark, timeLimitMs, hashMb, threads);
+        } else {
+            AIPlayer ai = new AIPlayer(mark, timeLimitMs, hashMb, threads);
+            ai.setSolverThreshold(SOLVER_EMPTY);
+            int colon = engine.indexOf(':');
+            if (colon >= 0) {
+                try {
+                    ai.setEvalWeights(EvalWeights.load(Paths.get(engine.substring(colon + 1))));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Poids d'évaluation illisibles: " + engine, e);
+                }
+            }
+            player = ai;
+        }
+        player.setSafetyMargin(MARGIN_MS);
+        player.setOpeningBook(BOOK);
+        return player;
+    }
+
+    /**
+     * Joue avec le serveur host:port jusqu'à la fin de la partie ou de la connexion.
+     */
+    public void play(String host, int port) {
+        // La table et le cache de recherche sont prêts avant que l'horloge du serveur ne tourne
+        prepareEngines();
+        try (ServerConnection server = new ServerConnection(host, port)) {
             // Initialise un plateau vide et un coup fictif par défaut
             globalBoard = new Board();
             lastMove = new Move(4, 4);
 
-            // Boucle principale de lecture des commandes
+            // Boucle principale : les commandes arrivent complètes du thread réseau
             while (true) {
-                int cmdInt = input.read();
-                if (cmdInt == -1) {
+                ServerCommand command = server.take();
+                char cmd = command.getCode();
+                if (cmd == ServerCommand.DISCONNECTED) {
                     break; // Fin du flux
                 }
-                char cmd = (char) cmdInt;
-                System.out.println("Commande reçue: " + cmd);
+                log("Commande reçue: " + cmd);
+                if (cmd == ServerCommand.NEW_GAME_X || cmd == ServerCommand.YOUR_TURN || cmd == ServerCommand.INVALID_MOVE) {
+                    // Une recherche va commencer : le préchauffage lui laisse le processeur
+                    stopWarmup();
+                }
 
-                if (cmd == '1') { // Tu es joueur Blanc (X)
-                    readBoardState(input, globalBoard);
+                if (cmd == ServerCommand.NEW_GAME_X) { // Tu es joueur Blanc (X)
+                    readBoardState(command, globalBoard);
                     cpuMark = Mark.X;
                     opponentMark = Mark.O;
-                    ai = new AIPlayer(cpuMark, 3000); // 3 secondes de temps max
-                    System.out.println("Nouvelle partie! Je suis BLANC (X).");
+                    newPlayer();
+                    log("Nouvelle partie! Je suis BLANC (X).");
 
                     // Envoie immédiatement le premier coup (car le serveur n'envoie pas '3' pour X)
                     Move myFirstMove = ai.getBestMove(globalBoard, lastMove);
+                    printSearchInfo();
                     if (myFirstMove == null) {
                         myFirstMove = new Move(0, 0);
                     }
                     globalBoard.play(myFirstMove.getRow(), myFirstMove.getCol(), cpuMark);
                     lastMove = myFirstMove;
                     String moveStr = moveToString(myFirstMove);
-                    System.out.println("Premier coup immédiat : " + moveStr);
-                    output.write(moveStr.getBytes(), 0, moveStr.length());
-                    output.flush();
+                    log("Premier coup immédiat : " + moveStr);
+                    server.send(moveStr);
+                    ponder();
                 }
-                else if (cmd == '2') { // Tu es joueur Noir (O)
-                    readBoardState(input, globalBoard);
+                else if (cmd == ServerCommand.NEW_GAME_O) { // Tu es joueur Noir (O)
+                    readBoardState(command, globalBoard);
                     cpuMark = Mark.O;
                     opponentMark = Mark.X;
-                    ai = new AIPlayer(cpuMark, 3000);
-                    System.out.println("Nouvelle partie! Je suis NOIR (O).");
+                    newPlayer();
+                    log("Nouvelle partie! Je suis NOIR (O).");
                     // On attend que le serveur envoie '3' pour jouer
                 }
-                else if (cmd == '3') { // C'est à toi de jouer
-                    String s = readLineFromServer(input);
-                    System.out.println("Dernier coup adverse: " + s);
+                else if (cmd == ServerCommand.YOUR_TURN) { // C'est à toi de jouer
+                    String s = command.getPayload();
+                    log("Dernier coup adverse: " + s);
                     if (!s.equals("A0")) {
                         Move advMove = parseMove(s);
                         globalBoard.play(advMove.getRow(), advMove.getCol(), opponentMark);
                         lastMove = advMove;
                     }
                     Move myBestMove = ai.getBestMove(globalBoard, lastMove);
+                    printSearchInfo();
                     if (myBestMove == null) {
                         myBestMove = new Move(0, 0);
                     }
                     globalBoard.play(myBestMove.getRow(), myBestMove.getCol(), cpuMark);
                     lastMove = myBestMove;
                     String moveStr = moveToString(myBestMove);
-                    System.out.println("J'envoie mon coup: " + moveStr);
-                    output.write(moveStr.getBytes(), 0, moveStr.length());
-                    output.flush();
+                    log("J'envoie mon coup: " + moveStr);
+                    server.send(moveStr);
+                    ponder();
                 }
-                else if (cmd == '4') { // Coup invalide
-                    System.out.println("Coup invalide! Je dois rejouer.");
+                else if (cmd == ServerCommand.INVALID_MOVE) { // Coup invalide
+                    log("Coup invalide! Je dois rejouer.");
                     Move myBestMove = ai.getBestMove(globalBoard, lastMove);
+                    printSearchInfo();
                     if (myBestMove == null) {
                         myBestMove = new Move(0, 0);
                     }
                     globalBoard.play(myBestMove.getRow(), myBestMove.getCol(), cpuMark);
                     lastMove = myBestMove;
                     String moveStr = moveToString(myBestMove);
-                    System.out.println("Nouveau coup: " + moveStr);
-                    output.write(moveStr.getBytes(), 0, moveStr.length());
-                    output.flush();
+                    log("Nouveau coup: " + moveStr);
+                    server.send(moveStr);
+                    ponder();
                 }
-                else if (cmd == '5') { // Partie terminée
-                    String s = readLineFromServer(input);
-                    System.out.println("Partie terminée. Dernier coup joué: " + s);
+                else if (cmd == ServerCommand.GAME_OVER) { // Partie terminée
+                    log("Partie terminée. Dernier coup joué: " + command.getPayload());
+                    if (ai != null) {
+                        ai.stopPondering();
+                    }
                     break;
                 }
             }
 
-            System.out.println("Fin de la connexion.");
-            input.close();
-            output.close();
-            myClient.close();
+            log("Fin de la connexion.");
 
         } catch (IOException e) {
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopWarmup();
+            releasePrepared();
+            if (ai != null) {
+                ai.shutdown();
+            }
+        }
+    }
+
+    private void stopWarmup() {
+        if (warmup != null) {
+            warmup.stop();
+            log(warmup.describe());
+            warmup = null;
+        }
+    }
+
+    /**
+     * Crée l'IA des deux marques possibles avant la connexion : l'allocation de la table et la
+     * relecture du cache de recherche (jusqu'à une centaine de ms) ne sont pas prises sur le
+     * temps du premier coup, qui court dès la commande de début de partie.
+     */
+    private void prepareEngines() {
+        for (Mark mark : new Mark[] {Mark.X, Mark.O}) {
+            int m = (mark == Mark.X) ? 0 : 1;
+            if (prepared[m] == null) {
+                prepared[m] = engines.apply(mark);
+            }
         }
     }
 
-    // Lit l'état initial (81 valeurs) et met à jour le plateau
-    private static void readBoardState(BufferedInputStream input, Board board) throws IOException {
-        byte[] buffer = new byte[1024];
-        int size = input.available();
-        input.read(buffer, 0, size);
-        String s = new String(buffer).trim();
-        System.out.println("Etat initial du plateau (81 valeurs) : " + s);
-        String[] boardValues = s.split(" ");
-        int index = 0;
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                int val = Integer.parseInt(boardValues[index]);
-                index++;
-                Mark m;
-                if (val == 4)      m = Mark.X;
-                else if (val == 2) m = Mark.O;
-                else               m = Mark.EMPTY;
-                board.setCellGlobal(row, col, m);
+    // Libère les IA préparées et non utilisées, sans écrire leur table (relue du cache) dans le cache
+    private void releasePrepared() {
+        for (int m = 0; m < prepared.length; m++) {
+            if (prepared[m] != null) {
+                prepared[m].setPersistentCache(null);
+                prepared[m].shutdown();
+                prepared[m] = null;
             }
         }
     }
 
-    // Lit une ligne depuis le serveur (ex. le dernier coup)
-    private static String readLineFromServer(BufferedInputStream input) throws IOException {
-        byte[] aBuffer = new byte[16];
-        int size = input.available();
-        input.read(aBuffer, 0, size);
-        return new String(aBuffer).trim();
+    // Prend l'IA préparée pour la nouvelle partie, en libérant celle de la partie précédente
+    private void newPlayer() {
+        if (ai != null) {
+            ai.shutdown();
+        }
+        int m = (cpuMark == Mark.X) ? 0 : 1;
+        ai = (prepared[m] != null) ? prepared[m] : engines.apply(cpuMark);
+        prepared[m] = null;
+        releasePrepared();
+    }
+
+    // Lance la réflexion pendant que l'adversaire cherche son coup
+    private void ponder() {
+        if (ponder) {
+            ai.startPondering(globalBoard, lastMove);
+        }
+    }
+
+    // Affiche le résumé de la dernière recherche
+    private void printSearchInfo() {
+        log(ai.describeLastSearch());
+        Telemetry.get().record(ai.getLastStats());
+    }
+
+    // Met à jour le plateau avec l'état initial (81 valeurs) reçu avec la commande
+    private void readBoardState(ServerCommand command, Board board) {
+        String s = command.getPayload();
+        log("Etat initial du plateau (81 valeurs) : " + s);
+        board.setCells(s);
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
     }
 
     // Convertit une chaîne (ex: "A9") en Move (row et col en indices 0-based)
     private static Move parseMove(String moveStr) {
-        if (moveStr.length() < 2) return new Move(0, 0);
-        char letter = moveStr.charAt(0);
-        char digit  = moveStr.charAt(1);
-        int col = letter - 'A';
-        int row = digit - '1';
-        return new Move(row, col);
+        return Move.parse(moveStr);
     }
 
     // Convertit un Move (row, col en indices 0-based) en chaîne (ex: "D6", avec lignes 1..9)
     private static String moveToString(Move move) {
-        char letter = (char) ('A' + move.getCol());
-        char digit  = (char) ('1' + move.getRow());
-        return "" + letter + digit;
+        return move.toServerString();
     }
 }
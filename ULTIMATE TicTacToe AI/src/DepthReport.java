@@ -0,0 +1,56 @@
+/**
+ * Mesure la profondeur atteinte en temps limité sur les positions de BenchPositions.
+ *
+ * Chaque position est cherchée avec le temps d'un coup, en alpha-beta complet puis avec
+ * PVS (fenêtres nulles, fenêtres d'aspiration et réduction des coups tardifs).
+ * On compare la profondeur de la dernière itération complète, les noeuds visités
+ * et le coup choisi.
+ *
+ * Usage : java DepthReport [tempsParCoupMs=3000]
+ */
+public class DepthReport {
+
+    public static void main(String[] args) {
+        long timeMs = (args.length > 0) ? Long.parseLong(args[0]) : 3000;
+
+        System.out.printf("%d ms par position%n", timeMs);
+        System.out.printf("%-10s %8s %8s %12s %12s %8s%n",
+                "position", "prof.", "PVS", "noeuds", "noeuds PVS", "coups");
+
+        long totalPlain = 0;
+        long totalPvs = 0;
+        int deeper = 0;
+        int sameMove = 0;
+        for (int i = 0; i < BenchPositions.size(); i++) {
+            long[] plain = search(i, timeMs, false);
+            long[] pvs = search(i, timeMs, true);
+            totalPlain += plain[0];
+            totalPvs += pvs[0];
+            if (pvs[0] > plain[0]) {
+                deeper++;
+            }
+            if (pvs[2] == plain[2]) {
+                sameMove++;
+            }
+            System.out.printf("%-10s %8d %8d %12d %12d %8s%n", "#" + i, plain[0], pvs[0], plain[1], pvs[1],
+                    (pvs[2] == plain[2]) ? "égaux" : moveName(plain[2]) + "/" + moveName(pvs[2]));
+        }
+        int n = BenchPositions.size();
+        System.out.printf("Profondeur moyenne : %.2f -> %.2f (plus profond sur %d/%d positions, même coup sur %d/%d)%n",
+                (double) totalPlain / n, (double) totalPvs / n, deeper, n, sameMove, n);
+    }
+
+    // Profondeur atteinte, noeuds et coup joué (index compact) d'une recherche en temps limité
+    private static long[] search(int i, long timeMs, boolean pvs) {
+        AIPlayer ai = new AIPlayer(BenchPositions.sideToMove(i), timeMs);
+        ai.setSolverThreshold(0);
+        ai.setPvs(pvs);
+        Move move = ai.getBestMove(BenchPositions.board(i), BenchPositions.lastMove(i));
+        ai.shutdown();
+        return new long[] {ai.getCompletedDepth(), ai.getNodes(), BitBoard.index(move.getRow(), move.getCol())};
+    }
+
+    private static String moveName(long idx) {
+        return new Move(BitBoard.rowOf((int) idx), BitBoard.colOf((int) idx)).toServerString();
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.function.BooleanSupplier;
+
+/**
+ * Résolution exacte des fins de partie : victoire, nulle ou défaite du joueur au trait.
+ *
+ * Quand il ne reste que peu de cases libres dans les plateaux locaux ouverts, l'arbre est
+ * assez petit pour être parcouru jusqu'au bout. La recherche est un Alpha-Beta (negamax)
+ * sur les trois valeurs -1, 0, 1, lancé avec des fenêtres nulles : d'abord "gagne-t-on ?",
+ * puis, sinon, "fait-on au moins nulle ?". Les résultats (exacts ou bornes) sont gardés
+ * dans une table propre au solveur, qui sert encore aux coups suivants de la partie.
+ * Chaque entrée y est rangée avec, pour profondeur, le nombre de cases libres de la
+ * position : le remplacement garde ainsi les sous-arbres les plus coûteux à résoudre,
+ * et les entrées des résolutions précédentes (une nouvelle génération à chaque appel)
+ * cèdent leur place aux positions encore atteignables.
+ */
+public class EndgameSolver {
+
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int UNKNOWN = Integer.MIN_VALUE; // résolution interrompue
+
+    // Cases libres (plateaux ouverts) en dessous desquelles on tente la résolution
+    public static final int DEFAULT_THRESHOLD = 24;
+
+    // Taille par défaut de la table des résultats
+    public static final int DEFAULT_CACHE_MB = 16;
+
+    private static final int MAX_PLY = 81;
+
+    private final TranspositionTable cache;
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private final int[] moveBuffer = new int[(MAX_PLY + 1) * 81];
+
+    private BooleanSupplier stop;
+    private boolean aborted;
+    private long nodes;
+    private int rootMove;
+
+    /**
+     * @param cacheMb  Mémoire de la table des résultats, en mégaoctets
+     */
+    public EndgameSolver(int cacheMb) {
+        this.cache = new TranspositionTable(cacheMb);
+    }
+
+    /**
+     * Nombre de cases libres dans les plateaux locaux encore ouverts.
+     */
+    public static int emptyCells(BitBoard bits) {
+        int empty = 0;
+        for (int b = 0; b < 9; b++) {
+            if (!bits.isClosed(b)) {
+                empty += 9 - Integer.bitCount(bits.getLocalMask(b, BitBoard.X) | bits.getLocalMask(b, BitBoard.O));
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Résout la position pour player, qui joue après lastMove.
+     *
+     * @param stop  Consulté tous les TimeManager.CHECK_INTERVAL noeuds ; vrai pour abandonner
+     * @return      WIN, DRAW ou LOSS pour player, ou UNKNOWN si la résolution a été abandonnée
+     */
+    public int solve(BitBoard bits, int lastMove, int player, BooleanSupplier stop) {
+        this.stop = stop;
+        aborted = false;
+        nodes = 0;
+        orderer.newSearch();
+        cache.newSearch();
+
+        // Gagne-t-on ?
+        int value = root(bits, lastMove, player, DRAW, WIN);
+        if (aborted) {
+            return UNKNOWN;
+        }
+        if (value >= WIN) {
+            return WIN;
+        }
+        // Sinon, peut-on tenir la nulle ?
+        value = root(bits, lastMove, player, LOSS, DRAW);
+        if (aborted) {
+            return UNKNOWN;
+        }
+        return (value >= DRAW) ? DRAW : LOSS;
+    }
+
+    /**
+     * Le coup qui atteint le résultat de la dernière résolution (victoire ou nulle).
+     */
+    public int getBestMove() {
+        return rootMove;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getCache() {
+        return cache;
+    }
+
+    private int root(BitBoard bits, int lastMove, int player, int alpha, int beta) {
+        int count = bits.generateMoves(lastMove, moveBuffer, 0);
+        int best = LOSS - 1;
+        rootMove = moveBuffer[0];
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            bits.play(move, player);
+            int value = -negamax(bits, move, BitBoard.opponent(player), -beta, -alpha, 1);
+            bits.unplay(move);
+            if (aborted) {
+                return best;
+            }
+            if (value > best) {
+                best = value;
+                rootMove = move;
+            }
+            if (best >= beta) {
+                break;
+            }
+            alpha = Math.max(alpha, best);
+        }
+        return best;
+    }
+
+    /**
+     * Valeur exacte (dans la fenêtre) de la position pour player, qui joue après lastMove.
+     */
+    private int negamax(BitBoard bits, int lastMove, int player, int alpha, int beta, int ply) {
+        if (aborted) {
+            return 0;
+        }
+        if ((++nodes & TimeManager.CHECK_MASK) == 0 && stop.getAsBoolean()) {
+            aborted = true;
+            return 0;
+        }
+
+        // Seul le joueur qui vient de jouer peut avoir gagné
+        if (bits.checkGlobalWinner() != BitBoard.EMPTY) {
+            return LOSS;
+        }
+        if (bits.isGlobalClosed()) {
+            return DRAW;
+        }
+
+        long key = bits.key(lastMove, player);
+        long entry = cache.probe(key);
+        int hashMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            int score = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+            hashMove = TranspositionTable.move(entry);
+        }
+
+        int start = ply * 81;
+        int count = bits.generateMoves(lastMove, moveBuffer, start);
+        int end = start + count;
+        orderer.score(bits, moveBuffer, start, count, hashMove, ply, player);
+
+        int originalAlpha = alpha;
+        int best = LOSS - 1;
+        int bestMove = -1;
+        for (int i = start; i < end; i++) {
+            int move = orderer.pick(moveBuffer, i, end);
+            bits.play(move, player);
+            int value = -negamax(bits, move, BitBoard.opponent(player), -beta, -alpha, ply + 1);
+            bits.unplay(move);
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                orderer.cutoff(move, i, start, ply, player, MAX_PLY - ply);
+                break;
+            }
+        }
+
+        int bound = (best <= originalAlpha) ? TranspositionTable.UPPER
+                : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        cache.store(key, emptyCells(bits), best, bound, bestMove);
+        return best;
+    }
+}
@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Poids de l'évaluation heuristique, sous forme d'un vecteur de paramètres.
+ *
+ * Un plateau local gagné vaut WON_BOARD ; un plateau ouvert vaut la somme de ses lignes
+ * encore jouables par un seul joueur : LINE_ONE avec une pièce, LINE_TWO avec deux,
+ * les diagonales multipliées par DIAGONAL. Sur le plateau géant, les lignes de plateaux
+ * gagnés par un seul joueur valent GLOBAL_ONE (un plateau) et GLOBAL_TWO (deux).
+ * Les poids par défaut ont été ajustés par Tuner sur 200 000 positions de SelfPlay ;
+ * ORIGINAL reproduit exactement l'évaluation d'origine, sans les termes globaux.
+ *
+ * Les scores de chacun des 3^9 états (plateau local, ou plateaux gagnés du plateau géant)
+ * sont précalculés à la construction : l'évaluation reste une lecture de tableau par plateau.
+ * Les poids ajustés par Tuner sont lus d'un fichier avec -Dttt.weights=...
+ */
+public final class EvalWeights {
+
+    public static final int WON_BOARD = 0;
+    public static final int LINE_ONE = 1;
+    public static final int LINE_TWO = 2;
+    public static final int DIAGONAL = 3;
+    public static final int GLOBAL_ONE = 4;
+    public static final int GLOBAL_TWO = 5;
+
+    public static final String[] NAMES = {"wonBoard", "lineOne", "lineTwo", "diagonal", "globalOne", "globalTwo"};
+
+    // Borne des évaluations, sous les scores de fin de partie d'AIPlayer (WIN_SCORE - MAX_DEPTH = 919)
+    public static final int MAX_SCORE = 900;
+
+    public static final EvalWeights ORIGINAL = new EvalWeights(new double[] {100, 1, 10, 1.5, 0, 0});
+
+    // Tuner sur 4000 parties de SelfPlay à profondeur 6 : erreur 0.1670 -> 0.1578
+    public static final EvalWeights DEFAULT = new EvalWeights(new double[] {100, 2, 70.5, 1, 22.5, 152.5});
+
+    private static EvalWeights current;
+
+    private final double[] values;
+    private final int[] localScores = new int[LocalTables.STATES];  // pour X, par état de plateau local
+    private final int[] globalScores = new int[LocalTables.STATES]; // pour X, par état des plateaux gagnés
+
+    public EvalWeights(double[] values) {
+        if (values.length != NAMES.length) {
+            throw new IllegalArgumentException("Il faut " + NAMES.length + " poids, pas " + values.length);
+        }
+        this.values = values.clone();
+        for (int x = 0; x < 512; x++) {
+            for (int o = 0; o < 512; o++) {
+                if ((x & o) != 0) {
+                    continue;
+                }
+                int i = LocalTables.index(x, o);
+                int winner = LocalTables.winner(i);
+                if (winner == BitBoard.X) {
+                    localScores[i] = (int) Math.round(values[WON_BOARD]);
+                } else if (winner == BitBoard.O) {
+                    localScores[i] = -(int) Math.round(values[WON_BOARD]);
+                } else {
+                    localScores[i] = evaluateLocalBoard(x, o);
+                }
+                globalScores[i] = evaluateGlobalBoard(x, o);
+            }
+        }
+    }
+
+    /**
+     * Les poids de -Dttt.weights s'il est donné, sinon DEFAULT. Lus une seule fois.
+     */
+    public static synchronized EvalWeights current() {
+        if (current == null) {
+            current = DEFAULT;
+            String file = System.getProperty("ttt.weights");
+            if (file != null && !file.isEmpty()) {
+                try {
+                    current = load(Paths.get(file));
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("Poids d'évaluation par défaut: " + e.getMessage());
+                }
+            }
+        }
+        return current;
+    }
+
+    public double get(int i) {
+        return values[i];
+    }
+
+    public double[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Les mêmes poids, sauf le poids i qui vaut value.
+     */
+    public EvalWeights with(int i, double value) {
+        double[] v = values.clone();
+        v[i] = value;
+        return new EvalWeights(v);
+    }
+
+    /**
+     * Score d'un plateau local pour X (l'opposé pour O), à partir de son code LocalTables.index.
+     */
+    public int localScore(int index) {
+        return localScores[index];
+    }
+
+    /**
+     * Score des lignes du plateau géant pour X, à partir du code LocalTables.index
+     * des masques de plateaux gagnés par X et par O.
+     */
+    public int globalScore(int index) {
+        return globalScores[index];
+    }
+
+    // Tables complètes, lues directement par les évaluations par lots
+    int[] localScores() {
+        return localScores;
+    }
+
+    int[] globalScores() {
+        return globalScores;
+    }
+
+    public static EvalWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+        }
+        double[] v = DEFAULT.toArray();
+        for (int i = 0; i < NAMES.length; i++) {
+            String value = properties.getProperty(NAMES[i]);
+            if (value != null) {
+                v[i] = Double.parseDouble(value.trim());
+            }
+        }
+        return new EvalWeights(v);
+    }
+
+    public void save(Path file, String comment) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("# " + comment + System.lineSeparator());
+            for (int i = 0; i < NAMES.length; i++) {
+                out.write(NAMES[i] + "=" + values[i] + System.lineSeparator());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NAMES.length; i++) {
+            sb.append((i == 0) ? "" : ", ").append(NAMES[i]).append('=').append(String.format("%.3f", values[i]));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof EvalWeights && Arrays.equals(values, ((EvalWeights) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    /**
+     * Évalue un plateau local non gagné du point de vue du joueur qui a les cases mine.
+     * Chaque ligne s'ajoute à une somme entière (ajout tronqué), comme dans l'évaluation d'origine.
+     */
+    private int evaluateLocalBoard(int mine, int theirs) {
+        int sum = 0;
+        // Les 6 premières lignes sont les rangées et les colonnes, les 2 dernières les diagonales
+        for (int i = 0; i < 6; i++) {
+            int line = BitBoard.LINES[i];
+            sum += evaluateLine(Integer.bitCount(mine & line), Integer.bitCount(theirs & line));
+        }
+        sum += values[DIAGONAL] * evaluateLine(Integer.bitCount(mine & BitBoard.LINES[6]), Integer.bitCount(theirs & BitBoard.LINES[6]));
+        sum += values[DIAGONAL] * evaluateLine(Integer.bitCount(mine & BitBoard.LINES[7]), Integer.bitCount(theirs & BitBoard.LINES[7]));
+
+        return sum;
+    }
+
+    private double evaluateLine(int countP, int countOpp) {
+        if (countP > 0 && countOpp > 0) return 0;
+        if (countP == 0 && countOpp == 0) return 0;
+        if (countP > 0) {
+            return (countP == 1) ? values[LINE_ONE] : values[LINE_TWO];
+        } else {
+            return (countOpp == 1) ? -values[LINE_ONE] : -values[LINE_TWO];
+        }
+    }
+
+    /**
+     * Lignes du plateau géant : wonX et wonO sont les plateaux gagnés par X et par O.
+     * Une ligne complète est une fin de partie, évaluée ailleurs.
+     */
+    private int evaluateGlobalBoard(int wonX, int wonO) {
+        double sum = 0;
+        for (int line : BitBoard.LINES) {
+            int x = Integer.bitCount(wonX & line);
+            int o = Integer.bitCount(wonO & line);
+            if (o == 0 && x == 1) sum += values[GLOBAL_ONE];
+            else if (o == 0 && x == 2) sum += values[GLOBAL_TWO];
+            else if (x == 0 && o == 1) sum -= values[GLOBAL_ONE];
+            else if (x == 0 && o == 2) sum -= values[GLOBAL_TWO];
+        }
+        return (int) Math.round(sum);
+    }
+}
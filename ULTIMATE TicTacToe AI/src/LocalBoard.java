@@ -105,4 +105,11 @@ public class LocalBoard {
     public void setCell(int r, int c, Mark mark) {
         cells[r][c] = mark;
     }
+
+    // Recalcule fermé/gagnant après des setCell, qui ne les mettent pas à jour
+    public void refreshStatus() {
+        closed = false;
+        winner = Mark.EMPTY;
+        checkWinner();
+    }
 }
@@ -0,0 +1,212 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serveur de jeu local, qui remplace le serveur du cours pour les matchs entre moteurs.
+ *
+ * Il parle le même protocole (voir ServerCommand) et applique les mêmes règles :
+ * le premier client connecté joue X, le second O ; chaque coup doit arriver avant la
+ * limite de temps et être légal, sinon le joueur reçoit '4' et doit rejouer. Après
+ * MAX_INVALID_MOVES coups invalides, ou au dépassement du temps, la partie est perdue.
+ * Le serveur n'écoute que sur l'adresse locale, sur un port libre choisi par le système.
+ */
+public class LocalServer implements Closeable {
+
+    // Coups invalides tolérés dans une même partie avant de la déclarer perdue
+    private static final int MAX_INVALID_MOVES = 3;
+
+    // Temps laissé aux clients pour se connecter
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+
+    private final ServerSocket serverSocket;
+    private final long timeLimitMs;
+
+    /**
+     * Issue d'une partie.
+     */
+    public static class GameResult {
+        public static final String WIN = "victoire";
+        public static final String DRAW = "nulle";
+        public static final String TIMEOUT = "temps dépassé";
+        public static final String INVALID = "coups invalides";
+        public static final String DISCONNECTED = "déconnexion";
+
+        private final Mark winner; // Mark.EMPTY pour une partie nulle
+        private final String reason;
+        private final int moves;
+
+        GameResult(Mark winner, String reason, int moves) {
+            this.winner = winner;
+            this.reason = reason;
+            this.moves = moves;
+        }
+
+        public Mark getWinner() {
+            return winner;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public int getMoves() {
+            return moves;
+        }
+    }
+
+    /**
+     * @param timeLimitMs  Temps accordé pour chaque coup, mesuré par le serveur
+     */
+    public LocalServer(long timeLimitMs) throws IOException {
+        this.serverSocket = new ServerSocket(0, 2, InetAddress.getLoopbackAddress());
+        this.serverSocket.setSoTimeout(CONNECT_TIMEOUT_MS);
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Joue une partie complète. connectX et connectO doivent lancer (sans attendre la fin
+     * de la partie) le client de chaque camp ; X est lancé et accepté avant O.
+     */
+    public GameResult playGame(Runnable connectX, Runnable connectO) throws IOException {
+        connectX.run();
+        try (Socket x = serverSocket.accept()) {
+            connectO.run();
+            try (Socket o = serverSocket.accept()) {
+                x.setTcpNoDelay(true);
+                o.setTcpNoDelay(true);
+                return referee(x, o);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private GameResult referee(Socket x, Socket o) throws IOException {
+        Socket[] sockets = {x, o};
+        BitBoard bits = new BitBoard();
+        String empty = new Board().toValues();
+        send(x, ServerCommand.NEW_GAME_X + " " + empty);
+        send(o, ServerCommand.NEW_GAME_O + " " + empty);
+
+        int player = BitBoard.X;
+        int last = -1;       // premier coup : tous les plateaux sont permis
+        int moves = 0;
+        int[] invalid = new int[2];
+        int[] legal = new int[81];
+        while (true) {
+            Mark mark = (player == BitBoard.X) ? Mark.X : Mark.O;
+            Mark other = (player == BitBoard.X) ? Mark.O : Mark.X;
+            Socket mover = sockets[player];
+
+            String text;
+            try {
+                text = readMove(mover);
+            } catch (SocketTimeoutException e) {
+                return finish(sockets, other, GameResult.TIMEOUT, moves, "A0");
+            }
+            if (text == null) {
+                return finish(sockets, other, GameResult.DISCONNECTED, moves, "A0");
+            }
+
+            int idx = toIndex(text);
+            if (idx < 0 || !contains(legal, bits.generateMoves(last, legal, 0), idx)) {
+                if (++invalid[player] >= MAX_INVALID_MOVES) {
+                    return finish(sockets, other, GameResult.INVALID, moves, text);
+                }
+                send(mover, String.valueOf(ServerCommand.INVALID_MOVE));
+                continue;
+            }
+
+            bits.play(idx, player);
+            last = idx;
+            moves++;
+            int winner = bits.checkGlobalWinner();
+            if (winner != BitBoard.EMPTY) {
+                return finish(sockets, mark, GameResult.WIN, moves, text);
+            }
+            if (bits.isGlobalClosed()) {
+                return finish(sockets, Mark.EMPTY, GameResult.DRAW, moves, text);
+            }
+            player = BitBoard.opponent(player);
+            send(sockets[player], ServerCommand.YOUR_TURN + " " + text);
+        }
+    }
+
+    private GameResult finish(Socket[] sockets, Mark winner, String reason, int moves, String lastMove) {
+        for (Socket s : sockets) {
+            try {
+                send(s, ServerCommand.GAME_OVER + " " + lastMove);
+            } catch (IOException e) {
+                // Le client est déjà parti
+            }
+        }
+        return new GameResult(winner, reason, moves);
+    }
+
+    // Index compact d'un coup "D6", ou -1 s'il est hors du plateau
+    private static int toIndex(String text) {
+        char letter = Character.toUpperCase(text.charAt(0));
+        char digit = text.charAt(1);
+        if (letter < 'A' || letter > 'I' || digit < '1' || digit > '9') {
+            return -1;
+        }
+        Move move = Move.parse(letter + "" + digit);
+        return BitBoard.index(move.getRow(), move.getCol());
+    }
+
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void send(Socket socket, String message) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(message.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /**
+     * Lit un coup (deux caractères, séparateurs ignorés) avant la limite de temps.
+     *
+     * @return  Le coup, ou null si le client a fermé la connexion
+     */
+    private String readMove(Socket socket) throws IOException {
+        long deadline = System.currentTimeMillis() + timeLimitMs;
+        InputStream in = socket.getInputStream();
+        StringBuilder move = new StringBuilder(2);
+        while (move.length() < 2) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new SocketTimeoutException();
+            }
+            socket.setSoTimeout((int) remaining);
+            int b = in.read();
+            if (b < 0) {
+                return null;
+            }
+            char c = (char) b;
+            if (c > ' ') {
+                move.append(c);
+            }
+        }
+        return move.toString();
+    }
+}
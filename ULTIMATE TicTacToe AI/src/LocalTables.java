@@ -0,0 +1,53 @@
+/**
+ * Tables précalculées pour les 3^9 = 19683 états d'un plateau local.
+ *
+ * Un état est repéré par son code en base 3 (0 = vide, 1 = X, 2 = O par case),
+ * obtenu à partir des masques de X et de O par deux lectures de TERNARY.
+ * Pour chaque état, on garde le gagnant. Les scores heuristiques des états sont dans
+ * EvalWeights, qui les calcule avec ses poids. (Le plateau fermé n'a pas de table :
+ * BitBoard le déduit de son masque, WINS[x] ou WINS[o] ou (x | o) == FULL, sans
+ * passer par le code en base 3.)
+ */
+public final class LocalTables {
+
+    public static final int STATES = 19683;
+
+    // TERNARY[m] : le masque m de 9 bits lu comme un nombre en base 3 (chiffres 0 ou 1).
+    // Lu directement par les évaluations par lots (BatchEvaluator).
+    static final int[] TERNARY = new int[512];
+
+    private static final byte[] WINNER = new byte[STATES];
+
+    static {
+        for (int m = 0; m < 512; m++) {
+            int t = 0;
+            for (int cell = 8; cell >= 0; cell--) {
+                t = t * 3 + ((m >> cell) & 1);
+            }
+            TERNARY[m] = t;
+        }
+        for (int x = 0; x < 512; x++) {
+            for (int o = 0; o < 512; o++) {
+                if ((x & o) != 0) {
+                    continue;
+                }
+                int winner = BitBoard.isWin(x) ? BitBoard.X : BitBoard.isWin(o) ? BitBoard.O : BitBoard.EMPTY;
+                WINNER[index(x, o)] = (byte) winner;
+            }
+        }
+    }
+
+    private LocalTables() {
+    }
+
+    /**
+     * Code en base 3 d'un plateau local à partir des masques de X et de O.
+     */
+    public static int index(int xMask, int oMask) {
+        return TERNARY[xMask] + 2 * TERNARY[oMask];
+    }
+
+    public static int winner(int index) {
+        return WINNER[index];
+    }
+}
@@ -0,0 +1,475 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Moteur Monte Carlo Tree Search (UCT) avec simulations aléatoires sur BitBoard.
+ *
+ * Les noeuds sont rangés dans des tableaux primitifs (une arène) : les enfants d'un
+ * noeud sont contigus à partir de firstChild. Tous les threads partagent l'arbre :
+ * la sélection et la rétropropagation se font sous verrou, avec une perte virtuelle
+ * sur le chemin pour envoyer les autres threads ailleurs, et les simulations hors verrou.
+ * Entre deux coups, on garde le sous-arbre du coup joué puis du coup adverse.
+ * En réflexion, les simulations continuent sous notre coup pendant que l'adversaire joue.
+ */
+public class MCTSPlayer implements Player {
+
+    // Constante d'exploration de UCT
+    private static final double EXPLORATION = 1.4;
+
+    // Visites fictives perdues ajoutées sur le chemin d'une simulation en cours
+    private static final int VIRTUAL_LOSS = 1;
+
+    // Mémoire d'un noeud dans l'arène (deux arènes sont allouées pour la compaction)
+    private static final int NODE_BYTES = 4 + 1 + 1 + 4 + 4 + 4 + 4;
+
+    private static final int UNEXPANDED = -1;
+
+    private final int cpuMark;
+    private final long timeLimitMs;
+    private long marginMs = TimeManager.DEFAULT_MARGIN_MS; // marge gardée pour répondre au serveur à temps
+
+    private Arena arena;
+    private Arena spare;
+    private final int[] origin; // origine de chaque noeud pendant la compaction
+
+    private int root;
+    private final BitBoard rootBits = new BitBoard();
+    private int rootLast;
+    private int rootPlayer;     // joueur au trait à la racine
+
+    // Noeud du coup joué au tour précédent et position après ce coup, pour réutiliser l'arbre
+    private int playedNode = -1;
+    private final BitBoard playedBits = new BitBoard();
+
+    private final Worker[] workers;
+    private final ExecutorService pool;
+    private volatile long deadline;
+    private volatile boolean stopRequested;
+    private Thread ponderThread;
+
+    private long lastIterations;
+    private int lastVisits;
+    private double lastWinRate;
+    private boolean lastReused;
+    private SearchStats lastStats;
+
+    /**
+     * @param memoryMb  Mémoire de l'arbre, en mégaoctets
+     * @param threads   Nombre de threads de simulation
+     */
+    public MCTSPlayer(Mark cpuMark, long timeLimitMs, int memoryMb, int threads) {
+        this.cpuMark = BitBoard.player(cpuMark);
+        this.timeLimitMs = timeLimitMs;
+
+        int capacity = (int) Math.min(Integer.MAX_VALUE / 2, ((long) memoryMb << 20) / (2 * NODE_BYTES));
+        this.arena = new Arena(capacity);
+        this.spare = new Arena(capacity);
+        this.origin = new int[capacity];
+
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(0x9E3779B97F4A7C15L * (i + 1));
+        }
+        this.pool = (workers.length == 1) ? null : Executors.newFixedThreadPool(workers.length - 1, r -> {
+            Thread t = new Thread(r, "mcts-worker");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Move getBestMove(Board board, Move lastMove) {
+        long startTime = System.currentTimeMillis();
+        long gcCountBefore = Telemetry.gcCount();
+        long gcTimeBefore = Telemetry.gcTimeMs();
+        stopPondering();
+        deadline = startTime + timeLimitMs - marginMs;
+
+        BitBoard bits = new BitBoard(board);
+        int last = (lastMove == null) ? -1 : BitBoard.index(lastMove.getRow(), lastMove.getCol());
+        int[] moves = bits.generateMoves(last);
+        if (moves.length == 0) {
+            return null;
+        }
+
+        int reused = findReusableNode(bits, last);
+        lastReused = reused >= 0;
+        if (lastReused) {
+            root = compact(reused);
+        } else {
+            arena.size = 0;
+            root = arena.allocate(1);
+            arena.init(root, -1);
+        }
+        rootBits.copyFrom(bits);
+        rootLast = last;
+        rootPlayer = cpuMark;
+
+        long before = arena.visits[root];
+        if (moves.length > 1) {
+            stopRequested = false;
+            search();
+        }
+        lastIterations = arena.visits[root] - before;
+
+        int best = mostVisitedChild(root);
+        int bestMove = (best < 0) ? moves[0] : arena.move[best];
+        lastVisits = (best < 0) ? 0 : arena.visits[best];
+        lastWinRate = (best < 0 || lastVisits == 0) ? 0.0 : arena.score[best] / (2.0 * lastVisits);
+
+        playedNode = best;
+        playedBits.copyFrom(bits);
+        playedBits.play(bestMove, cpuMark);
+
+        SearchStats stats = new SearchStats();
+        stats.engine = "mcts";
+        stats.move = new Move(BitBoard.rowOf(bestMove), BitBoard.colOf(bestMove)).toServerString();
+        stats.elapsedMs = System.currentTimeMillis() - startTime;
+        stats.nodes = lastIterations;
+        stats.score = (int) Math.round(1000 * (2 * lastWinRate - 1));
+        stats.principalVariation = principalVariation();
+        stats.depth = stats.principalVariation.size();
+        stats.timeToFirstMoveMs = 0; // un coup est disponible dès la première simulation
+        stats.gcCount = Telemetry.gcCount() - gcCountBefore;
+        stats.gcTimeMs = Telemetry.gcTimeMs() - gcTimeBefore;
+        stats.threads = workers.length;
+        lastStats = stats;
+
+        return new Move(BitBoard.rowOf(bestMove), BitBoard.colOf(bestMove));
+    }
+
+    @Override
+    public void setSafetyMargin(long marginMs) {
+        this.marginMs = Math.max(0, marginMs);
+    }
+
+    @Override
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    @Override
+    public String describeLastSearch() {
+        return String.format("Simulations: %d, arbre: %d/%d noeuds%s, coup choisi: %d visites (%.1f%%)",
+                lastIterations, arena.size, arena.capacity, lastReused ? " (réutilisé)" : "",
+                lastVisits, 100 * lastWinRate);
+    }
+
+    /**
+     * Continue les simulations sous notre coup : la racine devient la position après
+     * notre coup, l'adversaire au trait, et getBestMove reprendra le sous-arbre de sa réponse.
+     */
+    @Override
+    public void startPondering(Board board, Move lastMove) {
+        stopPondering();
+        if (playedNode < 0 || playedBits.checkGlobalWinner() != BitBoard.EMPTY || playedBits.isGlobalClosed()) {
+            return;
+        }
+        root = compact(playedNode);
+        playedNode = root;
+        rootBits.copyFrom(playedBits);
+        rootLast = BitBoard.index(lastMove.getRow(), lastMove.getCol());
+        rootPlayer = BitBoard.opponent(cpuMark);
+
+        deadline = Long.MAX_VALUE;
+        stopRequested = false;
+        ponderThread = new Thread(this::search, "mcts-ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    @Override
+    public void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+        stopRequested = true;
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+    }
+
+    @Override
+    public void shutdown() {
+        stopPondering();
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private void search() {
+        List<Future<?>> running = new ArrayList<>(workers.length - 1);
+        for (int i = 1; i < workers.length; i++) {
+            running.add(pool.submit(workers[i]));
+        }
+        workers[0].run();
+        stopRequested = true;
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erreur dans un thread de simulation", e.getCause());
+            }
+        }
+    }
+
+    // Enfant le plus visité d'un noeud, ou -1 s'il n'est pas développé
+    private int mostVisitedChild(int node) {
+        if (arena.firstChild[node] == UNEXPANDED) {
+            return -1;
+        }
+        int best = -1;
+        for (int c = arena.firstChild[node]; c < arena.firstChild[node] + arena.childCount[node]; c++) {
+            if (best < 0 || arena.visits[c] > arena.visits[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // Variation principale : le chemin des enfants les plus visités depuis la racine
+    private List<String> principalVariation() {
+        List<String> pv = new ArrayList<>();
+        for (int node = mostVisitedChild(root); node >= 0 && arena.visits[node] > 0; node = mostVisitedChild(node)) {
+            pv.add(new Move(BitBoard.rowOf(arena.move[node]), BitBoard.colOf(arena.move[node])).toServerString());
+        }
+        return pv;
+    }
+
+    /**
+     * Cherche, sous le coup joué au tour précédent, le noeud du coup adverse qui mène
+     * à la position actuelle. Retourne -1 si l'arbre ne correspond pas.
+     */
+    private int findReusableNode(BitBoard bits, int last) {
+        if (playedNode < 0 || last < 0 || arena.firstChild[playedNode] == UNEXPANDED) {
+            return -1;
+        }
+        int first = arena.firstChild[playedNode];
+        for (int c = first; c < first + arena.childCount[playedNode]; c++) {
+            if (arena.move[c] == last) {
+                BitBoard expected = new BitBoard(playedBits);
+                expected.play(last, BitBoard.opponent(cpuMark));
+                return (expected.getHash() == bits.getHash()) ? c : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Recopie le sous-arbre de start au début de l'arène de réserve (parcours en largeur,
+     * les enfants restent contigus), puis échange les deux arènes.
+     *
+     * @return  La nouvelle racine
+     */
+    private int compact(int start) {
+        spare.size = 0;
+        int newRoot = spare.allocate(1);
+        spare.copy(newRoot, arena, start);
+        origin[newRoot] = start;
+        for (int n = 0; n < spare.size; n++) {
+            int old = origin[n];
+            if (arena.firstChild[old] == UNEXPANDED) {
+                continue;
+            }
+            int count = arena.childCount[old];
+            int first = spare.allocate(count);
+            spare.firstChild[n] = first;
+            for (int j = 0; j < count; j++) {
+                spare.copy(first + j, arena, arena.firstChild[old] + j);
+                origin[first + j] = arena.firstChild[old] + j;
+            }
+        }
+        Arena tmp = arena;
+        arena = spare;
+        spare = tmp;
+        return newRoot;
+    }
+
+    /**
+     * Noeuds de l'arbre en tableaux primitifs.
+     */
+    private static final class Arena {
+        final int capacity;
+        final int[] firstChild;
+        final byte[] childCount;
+        final byte[] move;
+        final int[] visits;
+        final int[] score;       // 2 par victoire et 1 par nulle, pour le joueur qui a joué le coup du noeud
+        final int[] virtualLoss;
+        int size;
+
+        Arena(int capacity) {
+            this.capacity = capacity;
+            firstChild = new int[capacity];
+            childCount = new byte[capacity];
+            move = new byte[capacity];
+            visits = new int[capacity];
+            score = new int[capacity];
+            virtualLoss = new int[capacity];
+        }
+
+        // Réserve count noeuds contigus, ou retourne -1 si l'arène est pleine
+        int allocate(int count) {
+            if (size + count > capacity) {
+                return -1;
+            }
+            int first = size;
+            size += count;
+            return first;
+        }
+
+        void init(int node, int m) {
+            firstChild[node] = UNEXPANDED;
+            childCount[node] = 0;
+            move[node] = (byte) m;
+            visits[node] = 0;
+            score[node] = 0;
+            virtualLoss[node] = 0;
+        }
+
+        void copy(int node, Arena from, int src) {
+            firstChild[node] = UNEXPANDED;
+            childCount[node] = from.childCount[src];
+            move[node] = from.move[src];
+            visits[node] = from.visits[src];
+            score[node] = from.score[src];
+            virtualLoss[node] = 0;
+        }
+    }
+
+    /**
+     * Thread de simulation : sélection et expansion sous verrou, simulation
+     * aléatoire sur son propre plateau, puis rétropropagation sous verrou.
+     */
+    private final class Worker implements Runnable {
+        private final BitBoard bits = new BitBoard();
+        private final int[] path = new int[82];
+        private final int[] moves = new int[81];
+        private long seed;
+
+        Worker(long seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public void run() {
+            while (!stopRequested && System.currentTimeMillis() < deadline) {
+                iterate();
+            }
+        }
+
+        private void iterate() {
+            bits.copyFrom(rootBits);
+            int last = rootLast;
+            int player = rootPlayer;
+            int depth = 0;
+
+            synchronized (MCTSPlayer.this) {
+                int node = root;
+                path[0] = node;
+                arena.virtualLoss[node] += VIRTUAL_LOSS;
+                while (bits.checkGlobalWinner() == BitBoard.EMPTY && !bits.isGlobalClosed()) {
+                    if (arena.firstChild[node] == UNEXPANDED) {
+                        // On ne développe un noeud qu'à sa deuxième visite, pour ménager l'arène
+                        if ((node != root && arena.visits[node] == 0) || !expand(node, last)) {
+                            break;
+                        }
+                    }
+                    node = select(node);
+                    last = arena.move[node];
+                    bits.play(last, player);
+                    player = BitBoard.opponent(player);
+                    path[++depth] = node;
+                    arena.virtualLoss[node] += VIRTUAL_LOSS;
+                }
+            }
+
+            int winner = playout(last, player);
+
+            synchronized (MCTSPlayer.this) {
+                for (int d = 0; d <= depth; d++) {
+                    int node = path[d];
+                    arena.virtualLoss[node] -= VIRTUAL_LOSS;
+                    arena.visits[node]++;
+                    // Le coup d'un noeud de profondeur impaire est joué par le joueur au trait à la racine
+                    int mover = (d % 2 == 1) ? rootPlayer : BitBoard.opponent(rootPlayer);
+                    if (winner == mover) {
+                        arena.score[node] += 2;
+                    } else if (winner == BitBoard.EMPTY) {
+                        arena.score[node] += 1;
+                    }
+                }
+            }
+        }
+
+        private boolean expand(int node, int last) {
+            int count = bits.generateMoves(last, moves, 0);
+            int first = arena.allocate(count);
+            if (first < 0) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                arena.init(first + i, moves[i]);
+            }
+            arena.childCount[node] = (byte) count;
+            arena.firstChild[node] = first;
+            return true;
+        }
+
+        // Enfant qui maximise UCT, les visites virtuelles comptant comme des défaites
+        private int select(int node) {
+            int first = arena.firstChild[node];
+            int end = first + arena.childCount[node];
+            double logParent = Math.log(Math.max(1, arena.visits[node] + arena.virtualLoss[node]));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int c = first; c < end; c++) {
+                int n = arena.visits[c] + arena.virtualLoss[c];
+                if (n == 0) {
+                    return c;
+                }
+                double value = arena.score[c] / (2.0 * n) + EXPLORATION * Math.sqrt(logParent / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        // Partie aléatoire jusqu'à la fin ; retourne le gagnant ou EMPTY pour une nulle
+        private int playout(int last, int player) {
+            while (true) {
+                int winner = bits.checkGlobalWinner();
+                if (winner != BitBoard.EMPTY) {
+                    return winner;
+                }
+                int count = bits.generateMoves(last, moves, 0);
+                if (count == 0) {
+                    return BitBoard.EMPTY;
+                }
+                last = moves[nextInt(count)];
+                bits.play(last, player);
+                player = BitBoard.opponent(player);
+            }
+        }
+
+        // xorshift64* : générateur propre au thread, sans allocation
+        private int nextInt(int bound) {
+            seed ^= seed >>> 12;
+            seed ^= seed << 25;
+            seed ^= seed >>> 27;
+            long r = (seed * 0x2545F4914F6CDD1DL) >>> 32;
+            return (int) ((r * bound) >>> 32);
+        }
+    }
+}
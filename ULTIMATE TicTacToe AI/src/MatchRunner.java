@@ -0,0 +1,189 @@
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Match sans interface entre deux moteurs, partie après partie contre LocalServer.
+ *
+ * Chaque partie a son propre serveur local et ses deux clients, qui parlent le protocole
+ * réel par des sockets. Les moteurs changent de couleur à chaque partie. Les parties
+ * tournent sur des threads virtuels quand la JVM en a (Java 21 et plus), sinon sur un
+ * groupe de threads ; dans les deux cas, le nombre de parties jouées en même temps est
+ * limité pour que les recherches ne se disputent pas les coeurs (et ne dépassent pas leur temps).
+ *
+ * Usage : java MatchRunner moteurA moteurB [parties] [simultanées] [tempsMs]
+ * Moteurs : "alphabeta" ou "mcts". Mémoire de chaque moteur : -Dttt.hashMb (16 Mo par défaut).
+ */
+public class MatchRunner {
+
+    private static final int DEFAULT_GAMES = 100;
+    private static final long DEFAULT_TIME_MS = 1000;
+    private static final int DEFAULT_HASH_MB = 16;
+
+    // Quantile de la loi normale pour un intervalle de confiance à 95 %
+    private static final double Z_95 = 1.96;
+
+    private final String engineA;
+    private final String engineB;
+    private final long timeLimitMs;
+    private final int hashMb;
+
+    private final AtomicInteger winsA = new AtomicInteger();
+    private final AtomicInteger winsB = new AtomicInteger();
+    private final AtomicInteger draws = new AtomicInteger();
+    private final AtomicInteger forfeits = new AtomicInteger(); // temps, coups invalides, déconnexions
+
+    public MatchRunner(String engineA, String engineB, long timeLimitMs, int hashMb) {
+        this.engineA = engineA;
+        this.engineB = engineB;
+        this.timeLimitMs = timeLimitMs;
+        this.hashMb = hashMb;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage : java MatchRunner moteurA moteurB [parties] [simultanées] [tempsMs]");
+            return;
+        }
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        int concurrency = (args.length > 3) ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        long timeMs = (args.length > 4) ? Long.parseLong(args[4]) : DEFAULT_TIME_MS;
+        int hashMb = Integer.getInteger("ttt.hashMb", DEFAULT_HASH_MB);
+
+        MatchRunner runner = new MatchRunner(args[0], args[1], timeMs, hashMb);
+        System.out.printf("%s contre %s : %d parties, %d simultanées, %d ms par coup, threads %s%n",
+                args[0], args[1], games, concurrency, timeMs, virtualThreadsAvailable() ? "virtuels" : "classiques");
+        long start = System.nanoTime();
+        runner.run(games, concurrency);
+        double hours = (System.nanoTime() - start) / 3.6e12;
+        runner.printReport(hours);
+    }
+
+    /**
+     * Joue games parties, au plus concurrency à la fois.
+     */
+    public void run(int games, int concurrency) throws InterruptedException {
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService executor = newExecutor(concurrency);
+        List<Future<?>> running = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            boolean aIsX = g % 2 == 0;
+            running.add(executor.submit(() -> {
+                slots.acquireUninterruptibly();
+                try {
+                    playOne(aIsX);
+                } finally {
+                    slots.release();
+                }
+            }));
+        }
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erreur dans une partie", e.getCause());
+            }
+        }
+        executor.shutdown();
+    }
+
+    private void playOne(boolean aIsX) {
+        String engineX = aIsX ? engineA : engineB;
+        String engineO = aIsX ? engineB : engineA;
+        LocalServer.GameResult result;
+        try (LocalServer server = new LocalServer(timeLimitMs)) {
+            int port = server.getPort();
+            result = server.playGame(
+                    () -> startThread(() -> client(engineX).play("localhost", port)),
+                    () -> startThread(() -> client(engineO).play("localhost", port)));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("Partie interrompue", e);
+        }
+
+        if (!result.getReason().equals(LocalServer.GameResult.WIN)
+                && !result.getReason().equals(LocalServer.GameResult.DRAW)) {
+            forfeits.incrementAndGet();
+            System.err.println("Partie perdue par " + result.getReason() + " après " + result.getMoves() + " coups");
+        }
+        if (result.getWinner() == Mark.EMPTY) {
+            draws.incrementAndGet();
+        } else if ((result.getWinner() == Mark.X) == aIsX) {
+            winsA.incrementAndGet();
+        } else {
+            winsB.incrementAndGet();
+        }
+    }
+
+    private Client client(String engine) {
+        return new Client(mark -> Client.createEngine(engine, mark, timeLimitMs, hashMb, 1), false, false);
+    }
+
+    /**
+     * Résultat du point de vue du moteur A, avec l'écart Elo et son intervalle à 95 %.
+     */
+    public void printReport(double hours) {
+        int w = winsA.get();
+        int l = winsB.get();
+        int d = draws.get();
+        int n = w + l + d;
+        if (n == 0) {
+            return;
+        }
+        double score = (w + 0.5 * d) / n;
+        // Écart type du score d'une partie, puis de la moyenne
+        double variance = (w * Math.pow(1 - score, 2) + d * Math.pow(0.5 - score, 2) + l * Math.pow(score, 2)) / n;
+        double margin = Z_95 * Math.sqrt(variance / n);
+
+        System.out.printf("%s : +%d -%d =%d (score %.1f%%), %d parties perdues hors jeu%n",
+                engineA, w, l, d, 100 * score, forfeits.get());
+        System.out.printf("Elo %s - %s : %+.0f [%+.0f, %+.0f] (95 %%)%n", engineA, engineB,
+                elo(score), elo(score - margin), elo(score + margin));
+        System.out.printf("Débit : %.0f parties/heure%n", n / hours);
+    }
+
+    // Écart Elo correspondant à un score moyen, borné pour les scores de 0 % et 100 %
+    static double elo(double score) {
+        double s = Math.min(Math.max(score, 1e-3), 1 - 1e-3);
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+    /**
+     * Threads virtuels (Java 21 et plus) si la JVM en a, sinon concurrency threads classiques.
+     */
+    private static ExecutorService newExecutor(int concurrency) {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Lance r sur un thread virtuel si possible, sinon sur un thread classique
+    private static void startThread(Runnable r) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class.forName("java.lang.Thread$Builder").getMethod("start", Runnable.class).invoke(builder, r);
+        } catch (ReflectiveOperationException e) {
+            Thread t = new Thread(r, "match-client");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+}
@@ -15,4 +15,21 @@ public class Move {
         return col;
     }
 
+    // Convertit une chaîne (ex: "A9") en Move (row et col en indices 0-based)
+    public static Move parse(String moveStr) {
+        if (moveStr.length() < 2) return new Move(0, 0);
+        char letter = moveStr.charAt(0);
+        char digit  = moveStr.charAt(1);
+        int col = letter - 'A';
+        int row = digit - '1';
+        return new Move(row, col);
+    }
+
+    // Convertit le coup en chaîne pour le serveur (ex: "D6", avec lignes 1..9)
+    public String toServerString() {
+        char letter = (char) ('A' + col);
+        char digit  = (char) ('1' + row);
+        return "" + letter + digit;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+/**
+ * Ordre des coups d'un thread de recherche, par étapes :
+ * le coup de la table de transposition, puis les coups qui gagnent un plateau local,
+ * ceux qui bloquent un plateau local que l'adversaire allait gagner, les deux coups
+ * "killer" du niveau, et enfin les autres coups selon l'heuristique d'historique.
+ *
+ * Les coups sont notés une fois, puis choisis un par un (sélection du meilleur restant),
+ * ce qui ne coûte presque rien quand une coupure arrive dès les premiers coups.
+ */
+public class MoveOrderer {
+
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int WIN_SCORE = 1 << 29;
+    private static final int BLOCK_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_MAX = 1 << 26;
+
+    private final int[] scores;
+    private final int[] killers;     // deux coups par niveau
+    private final int[] history = new int[2 * 81];
+
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    /**
+     * @param maxPly  Nombre de niveaux de la recherche
+     */
+    public MoveOrderer(int maxPly) {
+        scores = new int[(maxPly + 1) * 81];
+        killers = new int[(maxPly + 1) * 2];
+        java.util.Arrays.fill(killers, -1);
+    }
+
+    /**
+     * Début d'une recherche : on oublie les killers et on atténue l'historique.
+     */
+    public void newSearch() {
+        java.util.Arrays.fill(killers, -1);
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+    }
+
+    /**
+     * Note les count coups de moves à partir de start, joués par player au niveau ply.
+     */
+    public void score(BitBoard board, int[] moves, int start, int count, int hashMove, int ply, int player) {
+        int opponent = BitBoard.opponent(player);
+        int killer1 = killers[ply * 2];
+        int killer2 = killers[ply * 2 + 1];
+        for (int i = start; i < start + count; i++) {
+            int move = moves[i];
+            int b = move / 9;
+            int bit = 1 << (move % 9);
+            int s;
+            if (move == hashMove) {
+                s = HASH_SCORE;
+            } else if (BitBoard.isWin(board.getLocalMask(b, player) | bit)) {
+                // Un plateau local qui donne aussi la partie passe avant les autres
+                s = WIN_SCORE + (BitBoard.isWin(board.getWonMask(player) | (1 << b)) ? 1 : 0);
+            } else if (BitBoard.isWin(board.getLocalMask(b, opponent) | bit)) {
+                s = BLOCK_SCORE;
+            } else if (move == killer1) {
+                s = KILLER_SCORE;
+            } else if (move == killer2) {
+                s = KILLER_SCORE - 1;
+            } else {
+                s = history[player * 81 + move];
+            }
+            scores[i] = s;
+        }
+    }
+
+    /**
+     * Place en position i le meilleur coup restant parmi [i, end) et le retourne.
+     */
+    public int pick(int[] moves, int i, int end) {
+        int best = i;
+        for (int j = i + 1; j < end; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int m = moves[i];
+            moves[i] = moves[best];
+            moves[best] = m;
+            int s = scores[i];
+            scores[i] = scores[best];
+            scores[best] = s;
+        }
+        return moves[i];
+    }
+
+    /**
+     * Vrai si le coup en position i (déjà choisi par pick) est un coup tranquille :
+     * ni coup de la table, ni gain ou blocage d'un plateau local, ni killer.
+     */
+    public boolean isQuiet(int i) {
+        return scores[i] < KILLER_SCORE - 1;
+    }
+
+    /**
+     * Coupure provoquée par le coup en position i (index dans le niveau : first).
+     * Les coups tranquilles deviennent killers et gagnent de l'historique.
+     */
+    public void cutoff(int move, int i, int first, int ply, int player, int remaining) {
+        cutoffs++;
+        if (i == first) {
+            firstMoveCutoffs++;
+        }
+        if (scores[i] >= BLOCK_SCORE) {
+            return;
+        }
+        if (killers[ply * 2] != move) {
+            killers[ply * 2 + 1] = killers[ply * 2];
+            killers[ply * 2] = move;
+        }
+        int h = player * 81 + move;
+        history[h] += remaining * remaining;
+        if (history[h] >= HISTORY_MAX) {
+            for (int k = 0; k < history.length; k++) {
+                history[k] >>= 1;
+            }
+        }
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Part des coupures obtenues dès le premier coup essayé.
+     */
+    public double getFirstMoveCutoffRate() {
+        return (cutoffs == 0) ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Livre d'ouvertures : le meilleur coup de positions du début de partie, calculé
+ * à l'avance par OpeningBookBuilder.
+ *
+ * Fichier : un en-tête (MAGIC, nombre d'entrées) puis des entrées de RECORD_BYTES octets
+ * triées par clé : la clé de la position (BitBoard.key), le coup (index compact) et la
+ * profondeur de la recherche qui l'a choisi. Le fichier est projeté en mémoire
+ * (MappedByteBuffer) : l'ouverture ne lit rien, et une recherche est une dichotomie
+ * sur le fichier, sans objet ni allocation sur le tas.
+ */
+public class OpeningBook {
+
+    public static final int MAGIC = 0x54544231; // "TTB1"
+
+    // Fichier chargé par défaut, réglable avec -Dttt.book=...
+    public static final String DEFAULT_FILE = "opening.book";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 10; // clé (8), coup (1), profondeur (1)
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Ce fichier n'est pas un livre d'ouvertures");
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(4);
+        if (buffer.capacity() < HEADER_BYTES + (long) size * RECORD_BYTES) {
+            throw new IOException("Livre d'ouvertures tronqué");
+        }
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // La projection reste valide après la fermeture du canal
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Ouvre le livre de -Dttt.book (ou DEFAULT_FILE), ou retourne null s'il n'existe pas.
+     */
+    public static OpeningBook openDefault() {
+        Path file = Paths.get(System.getProperty("ttt.book", DEFAULT_FILE));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Livre d'ouvertures ignoré: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return  Le coup du livre pour la position key (index compact), ou -1 si elle n'y est pas
+     */
+    public int probe(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * RECORD_BYTES;
+            long k = buffer.getLong(offset);
+            if (k < key) {
+                low = mid + 1;
+            } else if (k > key) {
+                high = mid - 1;
+            } else {
+                return buffer.get(offset + 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Écrit un livre ; keys doit être trié par ordre croissant, sans doublon.
+     */
+    public static void write(Path file, long[] keys, int[] moves, int[] depths) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(MAGIC);
+            data.writeInt(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                data.writeLong(keys[i]);
+                data.writeByte(moves[i]);
+                data.writeByte(Math.min(depths[i], 0x7F));
+            }
+            data.flush();
+        }
+    }
+}
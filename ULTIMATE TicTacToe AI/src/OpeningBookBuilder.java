@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Construit le livre d'ouvertures hors ligne, par des recherches profondes.
+ *
+ * Pour chaque camp, on parcourt les premiers coups de la partie : à notre tour, on
+ * cherche notre meilleur coup à la profondeur DEPTH et on l'ajoute au livre ; au tour
+ * de l'adversaire, on ne suit que ses width meilleures réponses (classées par une
+ * recherche courte), pour que le livre reste petit et couvre les lignes jouées.
+ * Les positions sont celles que voit le client : pour X, le premier coup part du
+ * coup fictif (4, 4) envoyé avec la commande '1'.
+ *
+ * Usage : java OpeningBookBuilder [demi-coups=8] [réponses=3] [profondeur=12] [fichier=opening.book]
+ */
+public class OpeningBookBuilder {
+
+    // Profondeur de la recherche qui classe les réponses de l'adversaire
+    private static final int RANKING_DEPTH = 5;
+
+    private final int plies;
+    private final int width;
+    private final int depth;
+
+    private final AIPlayer[] players = new AIPlayer[2];
+    private final Map<Long, int[]> entries = new TreeMap<>(); // clé -> {coup, profondeur}
+    private int searches;
+
+    public OpeningBookBuilder(int plies, int width, int depth) {
+        this.plies = plies;
+        this.width = width;
+        this.depth = depth;
+        players[BitBoard.X] = new AIPlayer(Mark.X, Long.MAX_VALUE / 4);
+        players[BitBoard.O] = new AIPlayer(Mark.O, Long.MAX_VALUE / 4);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int plies = (args.length > 0) ? Integer.parseInt(args[0]) : 8;
+        int width = (args.length > 1) ? Integer.parseInt(args[1]) : 3;
+        int depth = (args.length > 2) ? Integer.parseInt(args[2]) : 12;
+        String file = (args.length > 3) ? args[3] : OpeningBook.DEFAULT_FILE;
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies, width, depth);
+        long start = System.currentTimeMillis();
+        builder.build();
+        builder.write(file);
+        System.out.printf("%d positions écrites dans %s (%d recherches, %.1f s)%n",
+                builder.entries.size(), file, builder.searches, (System.currentTimeMillis() - start) / 1000.0);
+    }
+
+    public void build() {
+        // Nous jouons X : premier coup après le coup fictif du client
+        expand(new Board(), new BitBoard(), new Move(4, 4), BitBoard.X, BitBoard.X, 0);
+        // Nous jouons O : le premier coup de X est libre
+        expand(new Board(), new BitBoard(), null, BitBoard.X, BitBoard.O, 0);
+    }
+
+    public void write(String file) throws IOException {
+        long[] keys = new long[entries.size()];
+        int[] moves = new int[keys.length];
+        int[] depths = new int[keys.length];
+        int i = 0;
+        for (Map.Entry<Long, int[]> e : entries.entrySet()) {
+            keys[i] = e.getKey();
+            moves[i] = e.getValue()[0];
+            depths[i] = e.getValue()[1];
+            i++;
+        }
+        OpeningBook.write(Paths.get(file), keys, moves, depths);
+    }
+
+    /**
+     * @param lastMove  Le dernier coup, ou null si le joueur peut jouer partout
+     * @param toMove    Le joueur au trait
+     * @param us        Le camp dont on construit les coups
+     * @param ply       Demi-coups déjà joués
+     */
+    private void expand(Board board, BitBoard bits, Move lastMove, int toMove, int us, int ply) {
+        if (ply >= plies || bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return;
+        }
+        int last = (lastMove == null) ? -1 : BitBoard.index(lastMove.getRow(), lastMove.getCol());
+
+        if (toMove == us) {
+            long key = bits.key(last, us);
+            if (entries.containsKey(key)) {
+                // Transposition : position déjà couverte avec sa suite
+                return;
+            }
+            AIPlayer ai = players[us];
+            ai.setDepthLimit(depth);
+            Move best = ai.getBestMove(board, lastMove);
+            searches++;
+            int idx = BitBoard.index(best.getRow(), best.getCol());
+            entries.put(key, new int[] {idx, ai.getCompletedDepth()});
+            if (entries.size() % 50 == 0) {
+                System.out.printf("%d positions...%n", entries.size());
+            }
+            play(board, bits, idx, us);
+            expand(board, bits, best, BitBoard.opponent(us), us, ply + 1);
+            unplay(board, bits, idx);
+        } else {
+            for (int reply : bestReplies(board, bits, last, toMove, us)) {
+                play(board, bits, reply, toMove);
+                expand(board, bits, new Move(BitBoard.rowOf(reply), BitBoard.colOf(reply)), us, us, ply + 1);
+                unplay(board, bits, reply);
+            }
+        }
+    }
+
+    /**
+     * Les width réponses de l'adversaire qui laissent le moins bon score à notre camp.
+     */
+    private List<Integer> bestReplies(Board board, BitBoard bits, int last, int opponent, int us) {
+        int[] replies = bits.generateMoves(last);
+        long[] ranked = new long[replies.length];
+        AIPlayer ai = players[us];
+        ai.setDepthLimit(RANKING_DEPTH);
+        for (int i = 0; i < replies.length; i++) {
+            int reply = replies[i];
+            play(board, bits, reply, opponent);
+            int score;
+            if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+                score = (bits.checkGlobalWinner() == opponent) ? Integer.MIN_VALUE / 2 : 0;
+            } else {
+                ai.getBestMove(board, new Move(BitBoard.rowOf(reply), BitBoard.colOf(reply)));
+                score = ai.getLastStats().getScore();
+            }
+            unplay(board, bits, reply);
+            // Score en poids fort, coup en poids faible : le tri garde un ordre déterministe
+            ranked[i] = ((long) score << 8) | reply;
+        }
+        Arrays.sort(ranked);
+        List<Integer> best = new ArrayList<>();
+        for (int i = 0; i < Math.min(width, ranked.length); i++) {
+            best.add((int) (ranked[i] & 0xFF));
+        }
+        return best;
+    }
+
+    private static void play(Board board, BitBoard bits, int idx, int player) {
+        board.play(BitBoard.rowOf(idx), BitBoard.colOf(idx), (player == BitBoard.X) ? Mark.X : Mark.O);
+        bits.play(idx, player);
+    }
+
+    private static void unplay(Board board, BitBoard bits, int idx) {
+        board.unplay(BitBoard.rowOf(idx), BitBoard.colOf(idx));
+        bits.unplay(idx);
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Compte les feuilles de l'arbre de jeu jusqu'à une profondeur fixe (perft), pour vérifier
+ * qu'une génération de coups plus rapide produit toujours exactement le même arbre.
+ *
+ * Board (generateMoves, play, unplay, et setCells pour poser la position) sert de référence ;
+ * BitBoard, la représentation de la recherche, est compté de trois façons :
+ *   bitboard  chaque coup est joué, jusqu'aux feuilles
+ *   bulk      le dernier niveau est compté sans jouer les coups (BitBoard.countMoves)
+ *   parallel  comme bulk, les sous-arbres de la racine répartis sur un ForkJoinPool
+ * Une partie terminée (vainqueur global ou tous les plateaux fermés) n'a plus de coups.
+ * Chaque compte est comparé aux comptes de référence enregistrés (REFERENCE, obtenus avec
+ * Board) et à celui des autres modes ; une différence affiche le compte de chaque coup de
+ * la racine et fait échouer la commande.
+ *
+ * Usage : java Perft [profondeur=7] [modes=board,bitboard,bulk,parallel]
+ */
+public class Perft {
+
+    private static final String[] MODES = {"board", "bitboard", "bulk", "parallel"};
+
+    // Positions comptées : le début de partie (après le coup fictif E5 du client), puis BenchPositions
+    private static final int[] BENCH_POSITIONS = {0, 4, 8, 12};
+
+    // Comptes de référence (Board) : REFERENCE[position][profondeur - 1]
+    private static final long[][] REFERENCE = {
+            {9L, 80L, 704L, 6120L, 52584L, 446944L, 3755040L, 31263816L, 257796760L},
+            {9L, 72L, 572L, 4489L, 34882L, 268703L, 2056974L, 15761337L, 121223661L},
+            {9L, 64L, 455L, 3541L, 26626L, 222625L, 1851276L, 17012294L, 156983523L},
+            {5L, 35L, 221L, 1422L, 9296L, 62407L, 443291L, 3283698L, 26088294L},
+            {6L, 64L, 684L, 7153L, 74898L, 752569L, 7511375L, 72218453L}
+    };
+
+    public static void main(String[] args) throws Exception {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+        String[] modes = (args.length > 1) ? args[1].split(",") : MODES;
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int failures = 0;
+        System.out.printf("Profondeur %d, %d threads pour parallel%n", depth, pool.getParallelism());
+        System.out.printf("%-12s %-9s %14s %10s %14s %s%n", "position", "mode", "feuilles", "ms", "feuilles/s", "");
+
+        for (int p = 0; p <= BENCH_POSITIONS.length; p++) {
+            String name = (p == 0) ? "départ" : "#" + BENCH_POSITIONS[p - 1];
+            Board board = (p == 0) ? new Board() : BenchPositions.board(BENCH_POSITIONS[p - 1]);
+            Move lastMove = (p == 0) ? new Move(4, 4) : BenchPositions.lastMove(BENCH_POSITIONS[p - 1]);
+            Mark side = (p == 0) ? Mark.X : BenchPositions.sideToMove(BENCH_POSITIONS[p - 1]);
+            long reference = (depth <= REFERENCE[p].length) ? REFERENCE[p][depth - 1] : -1;
+
+            long expected = reference;
+            for (String mode : modes) {
+                long start = System.nanoTime();
+                long leaves = count(mode, board, lastMove, side, depth, pool);
+                long nanos = Math.max(1, System.nanoTime() - start);
+                String check = "";
+                if (expected < 0) {
+                    expected = leaves;
+                } else if (leaves != expected) {
+                    check = "DIFFÉRENT (attendu " + expected + ")";
+                    failures++;
+                } else if (reference >= 0) {
+                    check = "= référence";
+                }
+                System.out.printf("%-12s %-9s %14d %10d %14.0f %s%n", name, mode, leaves,
+                        nanos / 1_000_000, leaves * 1e9 / nanos, check);
+                if (leaves != expected) {
+                    divide(board, lastMove, side, depth);
+                }
+            }
+        }
+        if (failures > 0) {
+            throw new IllegalStateException(failures + " compte(s) différent(s)");
+        }
+    }
+
+    // Feuilles à profondeur depth avec le mode donné
+    private static long count(String mode, Board board, Move lastMove, Mark side, int depth, ForkJoinPool pool)
+            throws Exception {
+        BitBoard bits = new BitBoard(board);
+        int last = BitBoard.index(lastMove.getRow(), lastMove.getCol());
+        int player = BitBoard.player(side);
+        int[] buffer = new int[(depth + 1) * 81];
+        switch (mode) {
+            case "board":
+                return perft(copy(board), lastMove, side, depth);
+            case "bitboard":
+                return perft(bits, last, player, depth, buffer, 0, false);
+            case "bulk":
+                return perft(bits, last, player, depth, buffer, 0, true);
+            case "parallel":
+                return parallel(bits, last, player, depth, pool);
+            default:
+                throw new IllegalArgumentException("Mode inconnu: " + mode + " (board, bitboard, bulk ou parallel)");
+        }
+    }
+
+    /**
+     * Perft de BitBoard : les coups de chaque niveau sont écrits dans buffer à partir de ply * 81.
+     *
+     * @param bulk  Compter le dernier niveau sans jouer les coups
+     */
+    public static long perft(BitBoard bits, int last, int player, int depth, int[] buffer, int ply, boolean bulk) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return 0;
+        }
+        if (bulk && depth == 1) {
+            return bits.countMoves(last);
+        }
+        int start = ply * 81;
+        int end = start + bits.generateMoves(last, buffer, start);
+        int opponent = BitBoard.opponent(player);
+        long leaves = 0;
+        for (int i = start; i < end; i++) {
+            int move = buffer[i];
+            bits.play(move, player);
+            leaves += perft(bits, move, opponent, depth - 1, buffer, ply + 1, bulk);
+            bits.unplay(move);
+        }
+        return leaves;
+    }
+
+    /**
+     * Perft de référence, avec le modèle objet du client (Board, LocalBoard).
+     */
+    public static long perft(Board board, Move lastMove, Mark side, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (board.checkGlobalWinner() != Mark.EMPTY || board.isGlobalClosed()) {
+            return 0;
+        }
+        Mark other = (side == Mark.X) ? Mark.O : Mark.X;
+        long leaves = 0;
+        for (Move move : board.generateMoves(lastMove, side)) {
+            board.play(move.getRow(), move.getCol(), side);
+            leaves += perft(board, move, other, depth - 1);
+            board.unplay(move.getRow(), move.getCol());
+        }
+        return leaves;
+    }
+
+    // Les sous-arbres de la racine sont comptés en parallèle, chacun sur sa copie du plateau
+    private static long parallel(BitBoard bits, int last, int player, int depth, ForkJoinPool pool) throws Exception {
+        if (depth <= 1 || bits.checkGlobalWinner() != BitBoard.EMPTY || bits.isGlobalClosed()) {
+            return perft(bits, last, player, depth, new int[(depth + 1) * 81], 0, true);
+        }
+        List<Callable<Long>> subtrees = new ArrayList<>();
+        for (int move : bits.generateMoves(last)) {
+            BitBoard child = new BitBoard(bits);
+            child.play(move, player);
+            subtrees.add(() -> perft(child, move, BitBoard.opponent(player), depth - 1, new int[depth * 81], 0, true));
+        }
+        long leaves = 0;
+        for (Future<Long> subtree : pool.invokeAll(subtrees)) {
+            leaves += subtree.get();
+        }
+        return leaves;
+    }
+
+    // Compte de chaque coup de la racine, selon Board et selon BitBoard, pour trouver où ils divergent
+    private static void divide(Board board, Move lastMove, Mark side, int depth) {
+        BitBoard bits = new BitBoard(board);
+        int player = BitBoard.player(side);
+        int[] buffer = new int[(depth + 1) * 81];
+        Board reference = copy(board);
+        Mark other = (side == Mark.X) ? Mark.O : Mark.X;
+        for (Move move : reference.generateMoves(lastMove, side)) {
+            reference.play(move.getRow(), move.getCol(), side);
+            long expected = perft(reference, move, other, depth - 1);
+            reference.unplay(move.getRow(), move.getCol());
+            int idx = BitBoard.index(move.getRow(), move.getCol());
+            bits.play(idx, player);
+            long leaves = perft(bits, idx, BitBoard.opponent(player), depth - 1, buffer, 0, true);
+            bits.unplay(idx);
+            System.out.printf("    %s %14d %14d%s%n", move.toServerString(), expected, leaves,
+                    (expected == leaves) ? "" : "  <-");
+        }
+    }
+
+    private static Board copy(Board board) {
+        Board copy = new Board();
+        copy.setCells(board.toValues());
+        return copy;
+    }
+}
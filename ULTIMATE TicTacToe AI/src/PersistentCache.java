@@ -0,0 +1,266 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Résultats de recherche conservés sur disque d'une partie (et d'une exécution) à l'autre.
+ *
+ * À la fin de chaque partie, les entrées profondes de la table de transposition sont
+ * ajoutées au bout du fichier, par lots ; avant la partie suivante (Client prépare ses joueurs
+ * avant de se connecter), le fichier est projeté en mémoire et relu d'un trait pour préremplir
+ * la table. Le compactage borne le fichier, donc le coût de cette relecture.
+ * Les scores d'AIPlayer sont du point de vue de sa marque : chaque entrée garde donc la
+ * marque du joueur qui l'a calculée, et seules les entrées de la même marque sont relues.
+ *
+ * Fichier : un en-tête (MAGIC, numéro de session) puis des entrées de RECORD_BYTES octets,
+ * les plus récentes à la fin. Le numéro de session augmente à chaque ouverture et sert d'âge
+ * aux entrées. Si le fichier dépasse maxRecords entrées à l'ouverture, il est d'abord compacté :
+ * doublons retirés, puis on garde les entrées les plus profondes, une session d'âge comptant
+ * comme un niveau de moins. (Le compactage a lieu avant toute projection du fichier, que
+ * certains systèmes empêchent de remplacer tant qu'elle existe.)
+ *
+ * Un même fichier ne doit être ouvert que par un processus à la fois.
+ */
+public class PersistentCache implements Closeable {
+
+    public static final int MAGIC = 0x54544332; // "TTC2"
+
+    // Fichier par défaut, réglable avec -Dttt.cache=... (vide pour désactiver)
+    public static final String DEFAULT_FILE = "search.cache";
+
+    // Profondeur restante minimale d'une entrée pour être conservée
+    public static final int DEFAULT_MIN_DEPTH = 6;
+
+    // Nombre d'entrées au-delà duquel le fichier est compacté (16 Mo)
+    public static final int DEFAULT_MAX_RECORDS = 1 << 20;
+
+    private static final int HEADER_BYTES = 8;
+
+    // Clé (8), score (2), profondeur (1), borne et marque (1), coup (1), libre (1), âge (2)
+    private static final int RECORD_BYTES = 16;
+
+    // Entrées écrites par appel système
+    private static final int BATCH_RECORDS = 4096;
+
+    private final Path file;
+    private final int maxRecords;
+    private final int minDepth;
+    private FileChannel channel;
+    private int session;
+
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_BYTES);
+
+    public PersistentCache(Path file, int maxRecords, int minDepth) throws IOException {
+        this.file = file;
+        this.maxRecords = maxRecords;
+        this.minDepth = minDepth;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.size() >= HEADER_BYTES) {
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Ce fichier n'est pas un cache de recherche: " + file);
+            }
+            session = (header.getInt() + 1) & 0xFFFF;
+        }
+        // On retire une éventuelle entrée incomplète laissée par un arrêt brutal
+        long records = Math.max(0, (channel.size() - HEADER_BYTES) / RECORD_BYTES);
+        channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+        writeHeader();
+
+        if (records > maxRecords) {
+            compact();
+        }
+    }
+
+    /**
+     * Ouvre le cache de -Dttt.cache (ou DEFAULT_FILE), ou retourne null s'il est désactivé ou illisible.
+     */
+    public static PersistentCache openDefault() {
+        String name = System.getProperty("ttt.cache", DEFAULT_FILE);
+        if (name.isEmpty()) {
+            return null;
+        }
+        try {
+            return new PersistentCache(Paths.get(name), DEFAULT_MAX_RECORDS, DEFAULT_MIN_DEPTH);
+        } catch (IOException e) {
+            System.err.println("Cache de recherche désactivé: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized int size() throws IOException {
+        return (int) ((channel.size() - HEADER_BYTES) / RECORD_BYTES);
+    }
+
+    /**
+     * Préremplit table avec les entrées calculées pour mark, des plus anciennes aux plus récentes.
+     *
+     * @return  Le nombre d'entrées chargées
+     */
+    public synchronized int load(TranspositionTable table, int mark) throws IOException {
+        long size = channel.size();
+        if (size <= HEADER_BYTES) {
+            return 0;
+        }
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int loaded = 0;
+        for (int offset = HEADER_BYTES; offset + RECORD_BYTES <= size; offset += RECORD_BYTES) {
+            int flags = map.get(offset + 11);
+            if ((flags >> 2) != mark) {
+                continue;
+            }
+            table.store(map.getLong(offset), map.get(offset + 10) & 0xFF, map.getShort(offset + 8),
+                    flags & 0x3, map.get(offset + 12));
+            loaded++;
+        }
+        return loaded;
+    }
+
+    /**
+     * Ajoute au fichier les entrées de table assez profondes, calculées pour mark.
+     * Les entrées de la génération skipGeneration (celles relues par load et jamais
+     * recalculées depuis) sont déjà dans le fichier et ne sont pas réécrites.
+     *
+     * @return  Le nombre d'entrées écrites
+     */
+    public synchronized int save(TranspositionTable table, int mark, int skipGeneration) throws IOException {
+        long position = channel.size();
+        int written = 0;
+        batch.clear();
+        for (int slot = 0; slot < table.getCapacity(); slot++) {
+            long entry = table.entryAt(slot);
+            if (entry == TranspositionTable.MISS || TranspositionTable.depth(entry) < minDepth
+                    || TranspositionTable.generation(entry) == skipGeneration) {
+                continue;
+            }
+            int move = TranspositionTable.move(entry);
+            batch.putLong(table.keyAt(slot));
+            batch.putShort((short) TranspositionTable.score(entry));
+            batch.put((byte) TranspositionTable.depth(entry));
+            batch.put((byte) (TranspositionTable.bound(entry) | (mark << 2)));
+            batch.put((byte) move);
+            batch.put((byte) 0);
+            batch.putShort((short) session);
+            written++;
+            if (!batch.hasRemaining()) {
+                position += flush(position);
+            }
+        }
+        flush(position);
+        channel.force(false);
+        return written;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private long flush(long position) throws IOException {
+        batch.flip();
+        long bytes = batch.remaining();
+        while (batch.hasRemaining()) {
+            position += channel.write(batch, position);
+        }
+        batch.clear();
+        return bytes;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(session).flip();
+        channel.write(header, 0);
+    }
+
+    /**
+     * Réécrit le fichier avec au plus maxRecords / 2 entrées : la plus récente de chaque
+     * position, puis les mieux classées selon la profondeur et l'âge.
+     */
+    private void compact() throws IOException {
+        int n = size();
+        ByteBuffer map = ByteBuffer.allocate(HEADER_BYTES + n * RECORD_BYTES);
+        while (map.hasRemaining() && channel.read(map, map.position()) > 0) {
+            // lecture de tout le fichier
+        }
+
+        // Dernière occurrence de chaque (clé, marque), dans une table à adressage ouvert
+        int capacity = Integer.highestOneBit(Math.max(2, n) * 2);
+        long[] slotKeys = new long[capacity];
+        int[] slotRecords = new int[capacity];
+        Arrays.fill(slotRecords, -1);
+        for (int r = 0; r < n; r++) {
+            int offset = HEADER_BYTES + r * RECORD_BYTES;
+            long key = map.getLong(offset) ^ (map.get(offset + 11) >> 2);
+            int slot = (int) (key ^ (key >>> 32)) & (capacity - 1);
+            while (slotRecords[slot] >= 0 && slotKeys[slot] != key) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slotKeys[slot] = key;
+            slotRecords[slot] = r;
+        }
+
+        // Rang : profondeur moins l'âge en sessions ; le numéro d'entrée départage et sert d'index
+        long[] ranked = new long[n];
+        int unique = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int r = slotRecords[slot];
+            if (r < 0) {
+                continue;
+            }
+            int offset = HEADER_BYTES + r * RECORD_BYTES;
+            int age = (session - (map.getShort(offset + 14) & 0xFFFF)) & 0xFFFF;
+            int rank = (map.get(offset + 10) & 0xFF) - age;
+            ranked[unique++] = ((long) rank << 32) | r;
+        }
+        Arrays.sort(ranked, 0, unique);
+        int keep = Math.min(unique, maxRecords / 2);
+        int[] kept = new int[keep];
+        for (int i = 0; i < keep; i++) {
+            kept[i] = (int) ranked[unique - 1 - i];
+        }
+        Arrays.sort(kept); // on garde l'ordre du fichier : les plus récentes à la fin
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(session).flip();
+            out.write(header);
+            batch.clear();
+            for (int r : kept) {
+                int offset = HEADER_BYTES + r * RECORD_BYTES;
+                for (int b = 0; b < RECORD_BYTES; b++) {
+                    batch.put(map.get(offset + b));
+                }
+                if (!batch.hasRemaining()) {
+                    batch.flip();
+                    while (batch.hasRemaining()) {
+                        out.write(batch);
+                    }
+                    batch.clear();
+                }
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                out.write(batch);
+            }
+            batch.clear();
+            out.force(false);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Moteur de jeu utilisé par le client (Alpha-Beta, MCTS...).
+ */
+public interface Player {
+
+    /**
+     * Retourne le coup à jouer dans la position donnée.
+     *
+     * @param board     L'état actuel du plateau géant
+     * @param lastMove  Le dernier coup joué (pour générer les coups)
+     * @return          Le coup sélectionné, ou null s'il n'y a aucun coup légal
+     */
+    Move getBestMove(Board board, Move lastMove);
+
+    /**
+     * Livre d'ouvertures à consulter avant de chercher (null pour aucun).
+     */
+    default void setOpeningBook(OpeningBook book) {
+    }
+
+    /**
+     * Cache de résultats à relire maintenant et à compléter à l'arrêt du joueur (null pour aucun).
+     */
+    default void setPersistentCache(PersistentCache cache) {
+    }
+
+    /**
+     * Marge gardée sur le temps accordé par le serveur, pour la latence du réseau.
+     */
+    default void setSafetyMargin(long marginMs) {
+    }
+
+    /**
+     * Mesures de la dernière recherche, ou null si le moteur n'en fournit pas.
+     */
+    default SearchStats getLastStats() {
+        return null;
+    }
+
+    /**
+     * Résumé lisible de la dernière recherche, pour les traces du client.
+     */
+    default String describeLastSearch() {
+        return "";
+    }
+
+    /**
+     * Continue à chercher sur un thread de fond pendant que l'adversaire réfléchit.
+     * La réflexion s'arrête au prochain getBestMove (qui en profite si l'adversaire
+     * a joué le coup prévu) ou à stopPondering.
+     *
+     * @param board     Le plateau, notre coup déjà joué
+     * @param lastMove  Notre coup
+     */
+    default void startPondering(Board board, Move lastMove) {
+    }
+
+    /**
+     * Arrête proprement la réflexion en cours, s'il y en a une.
+     */
+    default void stopPondering() {
+    }
+
+    /**
+     * Libère les ressources du moteur (threads) ; il ne doit plus être utilisé ensuite.
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,109 @@
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Découpe le flux d'octets du serveur en commandes complètes.
+ *
+ * Le serveur n'envoie pas de longueur : une commande est un code ('1' à '5') suivi de
+ * son contenu, et c'est le code qui dit ce qu'il faut attendre (81 valeurs, un coup
+ * ou rien). Les octets arrivent par morceaux de taille quelconque ; l'analyseur garde
+ * son état entre deux appels à feed et ne publie une commande que lorsqu'elle est complète.
+ * Les séparateurs (espaces, fins de ligne, octets nuls) sont ignorés.
+ */
+public class ProtocolParser {
+
+    private static final int BOARD_VALUES = 81;
+
+    // États de l'analyseur
+    private static final int WAIT_CODE = 0;
+    private static final int READ_BOARD = 1;
+    private static final int READ_MOVE = 2;
+
+    private final Consumer<ServerCommand> sink;
+
+    private int state = WAIT_CODE;
+    private char code;
+    private final StringBuilder payload = new StringBuilder(2 * BOARD_VALUES);
+    private int values;
+
+    /**
+     * @param sink  Reçoit chaque commande complète, dans l'ordre d'arrivée
+     */
+    public ProtocolParser(Consumer<ServerCommand> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Consomme tous les octets restants de buffer.
+     */
+    public void feed(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            accept((char) (buffer.get() & 0xFF));
+        }
+    }
+
+    /**
+     * @return  Vrai si une commande est commencée mais pas encore complète
+     */
+    public boolean isPartial() {
+        return state != WAIT_CODE;
+    }
+
+    private void accept(char c) {
+        switch (state) {
+            case WAIT_CODE:
+                startCommand(c);
+                break;
+            case READ_BOARD:
+                // Chaque valeur du plateau tient sur un chiffre (0, 2 ou 4)
+                if (c >= '0' && c <= '9') {
+                    if (values > 0) {
+                        payload.append(' ');
+                    }
+                    payload.append(c);
+                    if (++values == BOARD_VALUES) {
+                        emit();
+                    }
+                }
+                break;
+            case READ_MOVE:
+                // Un coup : une lettre de colonne puis un chiffre de ligne ("A0" = aucun coup)
+                if (payload.length() == 0 && c >= 'A' && c <= 'I') {
+                    payload.append(c);
+                } else if (payload.length() == 1 && c >= '0' && c <= '9') {
+                    payload.append(c);
+                    emit();
+                }
+                break;
+            default:
+                throw new IllegalStateException("État inconnu: " + state);
+        }
+    }
+
+    private void startCommand(char c) {
+        code = c;
+        payload.setLength(0);
+        values = 0;
+        switch (c) {
+            case ServerCommand.NEW_GAME_X:
+            case ServerCommand.NEW_GAME_O:
+                state = READ_BOARD;
+                break;
+            case ServerCommand.YOUR_TURN:
+            case ServerCommand.GAME_OVER:
+                state = READ_MOVE;
+                break;
+            case ServerCommand.INVALID_MOVE:
+                emit();
+                break;
+            default:
+                // Séparateur ou octet inattendu entre deux commandes
+                break;
+        }
+    }
+
+    private void emit() {
+        sink.accept(new ServerCommand(code, (payload.length() == 0) ? null : payload.toString()));
+        state = WAIT_CODE;
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.List;
+
+/**
+ * Mesures d'une recherche (un coup), remplies par le moteur à la fin de getBestMove.
+ */
+public class SearchStats {
+
+    String engine;
+    String move;            // coup joué, encodage du serveur
+    long elapsedMs;
+    long nodes;             // noeuds (Alpha-Beta) ou simulations (MCTS)
+    int depth;              // profondeur de la dernière itération complète
+    int score;
+    double hashHitRate;
+    long cutoffs;
+    long firstMoveCutoffs;
+    long timeToFirstMoveMs; // temps avant le premier coup disponible (première itération complète)
+    List<String> principalVariation = List.of();
+    long gcCount;
+    long gcTimeMs;
+    int threads;
+    boolean pondered;       // résultat obtenu en continuant la réflexion
+    String solved;          // "win", "draw" ou "loss" si la position a été résolue exactement, sinon null
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public String getMove() {
+        return move;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNodesPerSecond() {
+        return (elapsedMs == 0) ? 0 : nodes * 1000 / elapsedMs;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public double getHashHitRate() {
+        return hashHitRate;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return (cutoffs == 0) ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    public long getTimeToFirstMoveMs() {
+        return timeToFirstMoveMs;
+    }
+
+    public List<String> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMs() {
+        return gcTimeMs;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isPondered() {
+        return pondered;
+    }
+
+    public String getSolved() {
+        return solved;
+    }
+
+    /**
+     * Une ligne JSON (les valeurs sont des nombres ou des coups, sans caractère à échapper).
+     */
+    public String toJson() {
+        StringBuilder pv = new StringBuilder("[");
+        for (int i = 0; i < principalVariation.size(); i++) {
+            if (i > 0) pv.append(',');
+            pv.append('"').append(principalVariation.get(i)).append('"');
+        }
+        pv.append(']');
+        return String.format(java.util.Locale.ROOT,
+                "{\"time\":%d,\"engine\":\"%s\",\"move\":\"%s\",\"elapsedMs\":%d,\"nodes\":%d,\"nps\":%d,"
+                        + "\"depth\":%d,\"score\":%d,\"hashHitRate\":%.4f,\"cutoffs\":%d,\"firstMoveCutoffRate\":%.4f,"
+                        + "\"timeToFirstMoveMs\":%d,\"pv\":%s,\"gcCount\":%d,\"gcTimeMs\":%d,\"threads\":%d,\"pondered\":%b,\"solved\":%s}",
+                System.currentTimeMillis(), engine, move, elapsedMs, nodes, getNodesPerSecond(),
+                depth, score, hashHitRate, cutoffs, getFirstMoveCutoffRate(),
+                timeToFirstMoveMs, pv, gcCount, gcTimeMs, threads, pondered,
+                (solved == null) ? "null" : "\"" + solved + "\"");
+    }
+}
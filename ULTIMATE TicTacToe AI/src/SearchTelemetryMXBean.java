@@ -0,0 +1,31 @@
+/**
+ * Vue JMX des mesures de recherche (dernier coup et cumuls depuis le démarrage).
+ */
+public interface SearchTelemetryMXBean {
+
+    long getMovesRecorded();
+
+    long getTotalNodes();
+
+    String getLastMove();
+
+    long getLastElapsedMs();
+
+    long getLastNodes();
+
+    long getLastNodesPerSecond();
+
+    int getLastDepth();
+
+    int getLastScore();
+
+    double getLastHashHitRate();
+
+    double getLastFirstMoveCutoffRate();
+
+    long getLastTimeToFirstMoveMs();
+
+    String getLastPrincipalVariation();
+
+    long getLastGcTimeMs();
+}
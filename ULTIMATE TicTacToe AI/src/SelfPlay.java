@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parties d'AIPlayer contre lui-même, qui fournissent les positions d'ajustement des poids.
+ *
+ * Chaque partie commence par quelques coups au hasard (pour ne pas rejouer toujours la même),
+ * puis les deux camps cherchent à profondeur fixe. Toutes les positions après l'ouverture
+ * sont gardées avec le résultat final de la partie. Les parties tournent en parallèle, une
+ * par coeur ; les positions sont ajoutées au fichier (TrainingData) dans l'ordre des parties.
+ *
+ * Usage : java SelfPlay [parties=1000] [profondeur=5] [fichier=selfplay.data] [graine=1]
+ */
+public class SelfPlay {
+
+    // Coups joués au hasard au début de chaque partie
+    private static final int MIN_RANDOM_PLIES = 2;
+    private static final int MAX_RANDOM_PLIES = 8;
+
+    // Mémoire de la table de chaque joueur
+    private static final int HASH_MB = 8;
+
+    private final int depth;
+    private final EvalWeights weights;
+
+    public SelfPlay(int depth, EvalWeights weights) {
+        this.depth = depth;
+        this.weights = weights;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        String file = (args.length > 2) ? args[2] : "selfplay.data";
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        SelfPlay selfPlay = new SelfPlay(depth, EvalWeights.current());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Game>> running = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            long gameSeed = seed * 1_000_003 + g;
+            running.add(pool.submit(() -> selfPlay.play(new SplittableRandom(gameSeed))));
+        }
+
+        long start = System.nanoTime();
+        int[] results = new int[3];
+        try (TrainingData.Writer writer = new TrainingData.Writer(Paths.get(file))) {
+            for (int g = 0; g < games; g++) {
+                Game game = running.get(g).get();
+                for (BitBoard position : game.positions) {
+                    writer.add(position, game.result);
+                }
+                results[game.result]++;
+                if ((g + 1) % 100 == 0) {
+                    System.out.printf("%d parties, %d positions...%n", g + 1, writer.size());
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d parties (X %d, O %d, nulles %d) en %.1f s sur %d threads ; %s : %d positions%n",
+                    games, results[TrainingData.X_WINS], results[TrainingData.O_WINS], results[TrainingData.DRAW],
+                    seconds, threads, file, writer.size());
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur dans une partie", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Une partie et les positions à garder (après l'ouverture au hasard).
+     */
+    private static final class Game {
+        final List<BitBoard> positions = new ArrayList<>();
+        int result;
+    }
+
+    private Game play(SplittableRandom random) {
+        AIPlayer[] players = {
+                new AIPlayer(Mark.X, Long.MAX_VALUE / 4, HASH_MB),
+                new AIPlayer(Mark.O, Long.MAX_VALUE / 4, HASH_MB)};
+        for (AIPlayer player : players) {
+            player.setDepthLimit(depth);
+            player.setEvalWeights(weights);
+        }
+
+        Game game = new Game();
+        Board board = new Board();
+        BitBoard bits = new BitBoard();
+        Move lastMove = new Move(4, 4);
+        int player = BitBoard.X;
+        int randomPlies = MIN_RANDOM_PLIES + random.nextInt(MAX_RANDOM_PLIES - MIN_RANDOM_PLIES + 1);
+        for (int ply = 0; bits.checkGlobalWinner() == BitBoard.EMPTY && !bits.isGlobalClosed(); ply++) {
+            int idx;
+            if (ply < randomPlies) {
+                int[] moves = bits.generateMoves(BitBoard.index(lastMove.getRow(), lastMove.getCol()));
+                idx = moves[random.nextInt(moves.length)];
+            } else {
+                game.positions.add(new BitBoard(bits));
+                Move move = players[player].getBestMove(board, lastMove);
+                idx = BitBoard.index(move.getRow(), move.getCol());
+            }
+            board.play(BitBoard.rowOf(idx), BitBoard.colOf(idx), (player == BitBoard.X) ? Mark.X : Mark.O);
+            bits.play(idx, player);
+            lastMove = new Move(BitBoard.rowOf(idx), BitBoard.colOf(idx));
+            player = BitBoard.opponent(player);
+        }
+        for (AIPlayer p : players) {
+            p.shutdown();
+        }
+
+        int winner = bits.checkGlobalWinner();
+        game.result = (winner == BitBoard.X) ? TrainingData.X_WINS
+                : (winner == BitBoard.O) ? TrainingData.O_WINS : TrainingData.DRAW;
+        return game;
+    }
+}
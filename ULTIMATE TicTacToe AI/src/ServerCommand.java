@@ -0,0 +1,47 @@
+/**
+ * Commande complète reçue du serveur de jeu.
+ *
+ * Codes du protocole :
+ * '1' nouvelle partie, on joue X (contenu : les 81 valeurs du plateau)
+ * '2' nouvelle partie, on joue O (contenu : les 81 valeurs du plateau)
+ * '3' à nous de jouer (contenu : le dernier coup adverse, "A0" s'il n'y en a pas)
+ * '4' notre dernier coup était invalide (pas de contenu)
+ * '5' partie terminée (contenu : le dernier coup joué)
+ */
+public class ServerCommand {
+
+    public static final char NEW_GAME_X = '1';
+    public static final char NEW_GAME_O = '2';
+    public static final char YOUR_TURN = '3';
+    public static final char INVALID_MOVE = '4';
+    public static final char GAME_OVER = '5';
+
+    // Code interne : la connexion est fermée, aucune commande ne suivra
+    public static final char DISCONNECTED = 0;
+
+    public static final ServerCommand END = new ServerCommand(DISCONNECTED, null);
+
+    private final char code;
+    private final String payload;
+
+    public ServerCommand(char code, String payload) {
+        this.code = code;
+        this.payload = payload;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * @return  Les valeurs du plateau séparées par des espaces, le coup (ex. "D6"), ou null
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        return (payload == null) ? String.valueOf(code) : code + " " + payload;
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Connexion au serveur de jeu, gérée par un thread d'entrées-sorties dédié.
+ *
+ * Le thread lit le canal en mode non bloquant, passe les octets à un ProtocolParser
+ * et dépose chaque commande complète dans une file que le client consomme avec take.
+ * Les coups à envoyer passent par une autre file : le thread du jeu ne touche jamais
+ * au canal, et la recherche n'attend jamais le réseau.
+ * Quand la connexion se ferme, la file reçoit ServerCommand.END.
+ */
+public class ServerConnection implements Closeable {
+
+    private static final int BUFFER_BYTES = 4096;
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+
+    // Tampons hors du tas, réutilisés pour toute la connexion
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    private final BlockingQueue<ServerCommand> commands = new LinkedBlockingQueue<>();
+    private final Queue<String> outgoing = new ConcurrentLinkedQueue<>();
+    private final ProtocolParser parser = new ProtocolParser(commands::add);
+
+    private final Thread ioThread;
+    private volatile boolean closed;
+
+    public ServerConnection(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        selector = Selector.open();
+        key = channel.register(selector, SelectionKey.OP_READ);
+
+        ioThread = new Thread(this::run, "server-io");
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * Attend la prochaine commande complète du serveur.
+     *
+     * @return  La commande, ou ServerCommand.END si la connexion est fermée
+     */
+    public ServerCommand take() throws InterruptedException {
+        ServerCommand command = commands.take();
+        if (command == ServerCommand.END) {
+            // On la remet pour les appels suivants
+            commands.add(command);
+        }
+        return command;
+    }
+
+    /**
+     * Envoie message au serveur (ex. un coup "D6"), sans attendre l'écriture.
+     */
+    public void send(String message) {
+        outgoing.add(message);
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                flushOutgoing();
+                if (selector.select() == 0) {
+                    // Réveil par send ou close
+                    continue;
+                }
+                selector.selectedKeys().clear();
+                if (key.isReadable() && !readAvailable()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("Connexion au serveur interrompue: " + e.getMessage());
+            }
+        } finally {
+            if (parser.isPartial()) {
+                System.err.println("Connexion fermée au milieu d'une commande");
+            }
+            commands.add(ServerCommand.END);
+            try {
+                selector.close();
+                channel.close();
+            } catch (IOException e) {
+                // La connexion est déjà perdue
+            }
+        }
+    }
+
+    /**
+     * Lit tout ce qui est disponible sur le canal.
+     *
+     * @return  Faux si le serveur a fermé la connexion
+     */
+    private boolean readAvailable() throws IOException {
+        int n;
+        while ((n = channel.read(readBuffer)) > 0) {
+            readBuffer.flip();
+            parser.feed(readBuffer);
+            readBuffer.clear();
+        }
+        return n >= 0;
+    }
+
+    /**
+     * Écrit les messages en attente ; ce qui ne part pas tout de suite attend OP_WRITE.
+     */
+    private void flushOutgoing() throws IOException {
+        String message;
+        while ((message = outgoing.peek()) != null && message.length() <= writeBuffer.remaining()) {
+            writeBuffer.put(message.getBytes(StandardCharsets.US_ASCII));
+            outgoing.poll();
+        }
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        writeBuffer.compact();
+
+        boolean pending = writeBuffer.position() > 0 || !outgoing.isEmpty();
+        key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesure l'accélération de la recherche parallèle (Lazy SMP).
+ *
+ * Pour chaque nombre de threads, on cherche les mêmes positions de milieu de partie
+ * jusqu'à une profondeur fixe et on compare le temps total à celui d'un seul thread.
+ *
+ * Usage : java SpeedupReport [profondeur] [nbPositions]
+ */
+public class SpeedupReport {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 9;
+        int positions = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+
+        List<Board> boards = new ArrayList<>();
+        List<Move> lastMoves = new ArrayList<>();
+        List<Mark> sides = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < positions; i++) {
+            randomPosition(random, 10 + i % 6, boards, lastMoves, sides);
+        }
+
+        System.out.println("Processeurs disponibles : " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("Profondeur %d, %d positions%n", depth, positions);
+        System.out.println("threads   temps (ms)   accélération");
+
+        long baseline = 0;
+        for (int threads : THREAD_COUNTS) {
+            long start = System.nanoTime();
+            for (int i = 0; i < boards.size(); i++) {
+                AIPlayer ai = new AIPlayer(sides.get(i), Long.MAX_VALUE / 4, AIPlayer.DEFAULT_HASH_MB, threads);
+                ai.setDepthLimit(depth);
+                ai.getBestMove(boards.get(i), lastMoves.get(i));
+                ai.shutdown();
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            if (threads == 1) {
+                baseline = elapsed;
+            }
+            System.out.printf("%7d   %10d   %11.2fx%n", threads, elapsed, (double) baseline / Math.max(1, elapsed));
+        }
+    }
+
+    // Joue plies coups au hasard depuis le début de la partie (sans terminer la partie)
+    private static void randomPosition(Random random, int plies,
+                                       List<Board> boards, List<Move> lastMoves, List<Mark> sides) {
+        Board board = new Board();
+        BitBoard bits = new BitBoard();
+        int last = BitBoard.index(4, 4);
+        int player = BitBoard.X;
+        for (int ply = 0; ply < plies; ply++) {
+            int[] moves = bits.generateMoves(last);
+            int move = moves[random.nextInt(moves.length)];
+            bits.play(move, player);
+            if (bits.checkGlobalWinner() != BitBoard.EMPTY) {
+                bits.unplay(move);
+                break;
+            }
+            board.play(BitBoard.rowOf(move), BitBoard.colOf(move), (player == BitBoard.X) ? Mark.X : Mark.O);
+            last = move;
+            player = BitBoard.opponent(player);
+        }
+        boards.add(board);
+        lastMoves.add(new Move(BitBoard.rowOf(last), BitBoard.colOf(last)));
+        sides.add((player == BitBoard.X) ? Mark.X : Mark.O);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Les 8 symétries du carré (rotations et réflexions) appliquées au plateau 9x9.
+ *
+ * Une symétrie du plateau géant déplace chaque plateau local et, de la même façon, chaque
+ * case à l'intérieur : la case c du plateau b va en case t(c) du plateau t(b). La règle
+ * d'envoi est conservée (jouer la case c envoie au plateau c, donc t(c) envoie à t(b)), et
+ * deux positions symétriques ont la même valeur, leurs coups se correspondant par t.
+ *
+ * Numérotation : 0 identité, 1 à 3 rotations d'un, deux et trois quarts de tour,
+ * 4 et 5 réflexions gauche-droite et haut-bas, 6 et 7 réflexions selon les deux diagonales.
+ */
+public final class Symmetry {
+
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+
+    private static final int[] INVERSE = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    // Image de chaque case d'une grille 3x3 (case ou plateau local), par symétrie
+    private static final int[][] SQUARES = new int[COUNT][9];
+
+    // Image de chaque index compact du plateau 9x9, par symétrie
+    private static final int[][] CELLS = new int[COUNT][81];
+
+    // Image de chaque masque de 9 bits d'une grille 3x3, par symétrie
+    private static final int[][] MASKS = new int[COUNT][512];
+
+    static {
+        for (int s = 0; s < COUNT; s++) {
+            for (int k = 0; k < 9; k++) {
+                int r = k / 3;
+                int c = k % 3;
+                int tr;
+                int tc;
+                switch (s) {
+                    case 1:  tr = c;     tc = 2 - r; break;
+                    case 2:  tr = 2 - r; tc = 2 - c; break;
+                    case 3:  tr = 2 - c; tc = r;     break;
+                    case 4:  tr = r;     tc = 2 - c; break;
+                    case 5:  tr = 2 - r; tc = c;     break;
+                    case 6:  tr = c;     tc = r;     break;
+                    case 7:  tr = 2 - c; tc = 2 - r; break;
+                    default: tr = r;     tc = c;     break;
+                }
+                SQUARES[s][k] = tr * 3 + tc;
+            }
+            for (int idx = 0; idx < 81; idx++) {
+                CELLS[s][idx] = SQUARES[s][idx / 9] * 9 + SQUARES[s][idx % 9];
+            }
+            for (int m = 0; m < 512; m++) {
+                int image = 0;
+                for (int k = 0; k < 9; k++) {
+                    if ((m & (1 << k)) != 0) {
+                        image |= 1 << SQUARES[s][k];
+                    }
+                }
+                MASKS[s][m] = image;
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    public static int inverse(int sym) {
+        return INVERSE[sym];
+    }
+
+    /**
+     * Image d'une case ou d'un plateau local (0 à 8) ; 9 (« partout ») reste 9.
+     */
+    public static int square(int sym, int k) {
+        return (k == 9) ? 9 : SQUARES[sym][k];
+    }
+
+    /**
+     * Image d'un index compact ; une valeur hors du plateau (coup absent, -1) reste inchangée.
+     */
+    public static int cell(int sym, int idx) {
+        return (idx < 0 || idx >= 81) ? idx : CELLS[sym][idx];
+    }
+
+    public static int mask(int sym, int mask) {
+        return MASKS[sym][mask];
+    }
+}
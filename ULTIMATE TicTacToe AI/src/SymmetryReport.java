@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesure la réduction de l'arbre due aux symétries du plateau en début de partie.
+ *
+ * Chaque position est cherchée à profondeur fixe, sans puis avec les symétries
+ * (table de transposition canonique et coups symétriques écartés à la racine).
+ * On compare les noeuds visités et le temps, et on vérifie que les scores concordent.
+ *
+ * Usage : java SymmetryReport [profondeur] [nbPositionsAuHasard]
+ */
+public class SymmetryReport {
+
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 8;
+        int randomPositions = (args.length > 1) ? Integer.parseInt(args[1]) : 6;
+
+        List<String> names = new ArrayList<>();
+        List<Board> boards = new ArrayList<>();
+        List<Move> lastMoves = new ArrayList<>();
+        List<Mark> sides = new ArrayList<>();
+
+        // Premier coup de X, libre ou après le coup fictif (4, 4) du client
+        names.add("X libre");
+        boards.add(new Board());
+        lastMoves.add(null);
+        sides.add(Mark.X);
+        names.add("X après E5");
+        boards.add(new Board());
+        lastMoves.add(new Move(4, 4));
+        sides.add(Mark.X);
+        // Réponses de O aux premiers coups symétriques de X
+        for (Move first : new Move[] {new Move(4, 4), new Move(3, 3), new Move(0, 0), new Move(1, 1)}) {
+            Board board = new Board();
+            board.play(first.getRow(), first.getCol(), Mark.X);
+            names.add("O après " + first.toServerString());
+            boards.add(board);
+            lastMoves.add(first);
+            sides.add(Mark.O);
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < randomPositions; i++) {
+            int plies = 2 + i % 4;
+            randomPosition(random, plies, boards, lastMoves, sides);
+            names.add("hasard, " + plies + " coups");
+        }
+
+        System.out.printf("Profondeur %d%n", depth);
+        System.out.printf("%-18s %12s %12s %9s %10s %10s %8s%n",
+                "position", "noeuds", "symétries", "gain", "ms", "ms sym.", "scores");
+
+        long totalPlain = 0;
+        long totalSymmetric = 0;
+        for (int i = 0; i < boards.size(); i++) {
+            long[] plain = search(boards.get(i), lastMoves.get(i), sides.get(i), depth, false);
+            long[] symmetric = search(boards.get(i), lastMoves.get(i), sides.get(i), depth, true);
+            totalPlain += plain[0];
+            totalSymmetric += symmetric[0];
+            System.out.printf("%-18s %12d %12d %8.1f%% %10d %10d %8s%n", names.get(i),
+                    plain[0], symmetric[0], 100.0 * (plain[0] - symmetric[0]) / plain[0],
+                    plain[1], symmetric[1], (plain[2] == symmetric[2]) ? "égaux" : plain[2] + "/" + symmetric[2]);
+        }
+        System.out.printf("%-18s %12d %12d %8.1f%%%n", "total",
+                totalPlain, totalSymmetric, 100.0 * (totalPlain - totalSymmetric) / totalPlain);
+    }
+
+    // Noeuds, temps (ms) et score d'une recherche à profondeur fixe
+    private static long[] search(Board board, Move lastMove, Mark side, int depth, boolean symmetry) {
+        AIPlayer ai = new AIPlayer(side, Long.MAX_VALUE / 4);
+        ai.setDepthLimit(depth);
+        ai.setSolverThreshold(0);
+        ai.setSymmetry(symmetry);
+        long start = System.nanoTime();
+        ai.getBestMove(board, lastMove);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        ai.shutdown();
+        return new long[] {ai.getNodes(), elapsed, ai.getLastStats().getScore()};
+    }
+
+    // Joue plies coups au hasard après le coup fictif du client (sans terminer la partie)
+    private static void randomPosition(Random random, int plies,
+                                       List<Board> boards, List<Move> lastMoves, List<Mark> sides) {
+        Board board = new Board();
+        BitBoard bits = new BitBoard();
+        int last = BitBoard.index(4, 4);
+        int player = BitBoard.X;
+        for (int ply = 0; ply < plies; ply++) {
+            int[] moves = bits.generateMoves(last);
+            int move = moves[random.nextInt(moves.length)];
+            bits.play(move, player);
+            board.play(BitBoard.rowOf(move), BitBoard.colOf(move), (player == BitBoard.X) ? Mark.X : Mark.O);
+            last = move;
+            player = BitBoard.opponent(player);
+        }
+        boards.add(board);
+        lastMoves.add(new Move(BitBoard.rowOf(last), BitBoard.colOf(last)));
+        sides.add((player == BitBoard.X) ? Mark.X : Mark.O);
+    }
+}
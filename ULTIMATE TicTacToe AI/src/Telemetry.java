@@ -0,0 +1,158 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Publication des mesures de chaque recherche : une ligne JSON par coup dans un fichier
+ * (-Dttt.telemetry=chemin) et un MXBean "ttt:type=SearchTelemetry" (-Dttt.jmx=true).
+ *
+ * Les moteurs remplissent toujours leur SearchStats (quelques compteurs par coup) ;
+ * quand rien n'est activé, record ne fait rien.
+ */
+public final class Telemetry implements SearchTelemetryMXBean {
+
+    private static final Telemetry INSTANCE =
+            new Telemetry(System.getProperty("ttt.telemetry"), Boolean.getBoolean("ttt.jmx"));
+
+    private final PrintWriter out;
+    private final boolean enabled;
+
+    private volatile SearchStats last = new SearchStats();
+    private long movesRecorded;
+    private long totalNodes;
+
+    private Telemetry(String path, boolean jmx) {
+        PrintWriter writer = null;
+        if (path != null && !path.isEmpty()) {
+            try {
+                writer = new PrintWriter(new FileWriter(path, true));
+            } catch (IOException e) {
+                System.err.println("Télémétrie désactivée, fichier illisible: " + path + " (" + e.getMessage() + ")");
+            }
+        }
+        boolean registered = false;
+        if (jmx) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(this, new ObjectName("ttt:type=SearchTelemetry"));
+                registered = true;
+            } catch (JMException e) {
+                System.err.println("MXBean de télémétrie non enregistré: " + e.getMessage());
+            }
+        }
+        this.out = writer;
+        this.enabled = writer != null || registered;
+    }
+
+    public static Telemetry get() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void record(SearchStats stats) {
+        if (!enabled || stats == null) {
+            return;
+        }
+        last = stats;
+        movesRecorded++;
+        totalNodes += stats.nodes;
+        if (out != null) {
+            out.println(stats.toJson());
+            out.flush();
+        }
+    }
+
+    /**
+     * Nombre de collectes du GC depuis le démarrage, tous collecteurs confondus.
+     */
+    public static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Temps passé dans le GC depuis le démarrage, en millisecondes.
+     */
+    public static long gcTimeMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    @Override
+    public synchronized long getMovesRecorded() {
+        return movesRecorded;
+    }
+
+    @Override
+    public synchronized long getTotalNodes() {
+        return totalNodes;
+    }
+
+    @Override
+    public String getLastMove() {
+        return last.getMove();
+    }
+
+    @Override
+    public long getLastElapsedMs() {
+        return last.getElapsedMs();
+    }
+
+    @Override
+    public long getLastNodes() {
+        return last.getNodes();
+    }
+
+    @Override
+    public long getLastNodesPerSecond() {
+        return last.getNodesPerSecond();
+    }
+
+    @Override
+    public int getLastDepth() {
+        return last.getDepth();
+    }
+
+    @Override
+    public int getLastScore() {
+        return last.getScore();
+    }
+
+    @Override
+    public double getLastHashHitRate() {
+        return last.getHashHitRate();
+    }
+
+    @Override
+    public double getLastFirstMoveCutoffRate() {
+        return last.getFirstMoveCutoffRate();
+    }
+
+    @Override
+    public long getLastTimeToFirstMoveMs() {
+        return last.getTimeToFirstMoveMs();
+    }
+
+    @Override
+    public String getLastPrincipalVariation() {
+        return String.join(" ", last.getPrincipalVariation());
+    }
+
+    @Override
+    public long getLastGcTimeMs() {
+        return last.getGcTimeMs();
+    }
+}
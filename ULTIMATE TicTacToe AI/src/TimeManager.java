@@ -0,0 +1,134 @@
+/**
+ * Répartition du temps de réflexion d'un coup.
+ *
+ * La limite dure (temps accordé par le serveur moins une marge pour le réseau) interrompt
+ * la recherche en cours. Entre deux itérations, on compare aussi le temps écoulé à une
+ * limite souple qui dépend de la position : plus de temps quand le joueur peut jouer
+ * partout ou quand le meilleur coup change d'une itération à l'autre, moins quand la
+ * recherche est stable. Une itération commencée trop tard ne finirait pas et serait perdue.
+ *
+ * Un seul objet sert pour tout le joueur. Seul le thread principal de la recherche enregistre
+ * ses itérations ; le décompte peut démarrer depuis un autre thread quand la réflexion
+ * sur le temps de l'adversaire devient la recherche du coup.
+ */
+public class TimeManager {
+
+    // Marge par défaut sur la limite du serveur (latence du réseau, envoi du coup)
+    public static final long DEFAULT_MARGIN_MS = 150;
+
+    // La recherche ne lit l'horloge et le signal d'arrêt qu'une fois tous les CHECK_INTERVAL noeuds
+    public static final int CHECK_INTERVAL = 1024;
+    public static final int CHECK_MASK = CHECK_INTERVAL - 1;
+
+    // Part du temps disponible après laquelle une position stable ne commence plus d'itération
+    private static final double BASE_SHARE = 0.5;
+
+    // Plateau visé fermé ou libre : le joueur choisit parmi tous les plateaux ouverts
+    private static final int OPEN_BOARD_MOVES = 9;
+    private static final double OPEN_BOARD_FACTOR = 1.3;
+
+    // Temps supplémentaire par changement récent du meilleur coup (oublié de moitié à chaque itération)
+    private static final double CHANGE_FACTOR = 0.5;
+
+    // Temps supplémentaire quand le score baisse nettement d'une itération à l'autre
+    private static final int DROP_THRESHOLD = 20;
+    private static final double DROP_FACTOR = 1.5;
+
+    private final long timeLimitMs;
+    private long marginMs = DEFAULT_MARGIN_MS;
+
+    private volatile long startTime;
+    private volatile boolean clockRunning;
+    private boolean openBoard;
+    private int previousMove;
+    private int previousScore;
+    private double bestMoveChanges;
+    private boolean scoreDropped;
+
+    /**
+     * @param timeLimitMs  Temps accordé par le serveur pour chaque coup
+     */
+    public TimeManager(long timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public void setMarginMs(long marginMs) {
+        this.marginMs = Math.max(0, marginMs);
+    }
+
+    public long getMarginMs() {
+        return marginMs;
+    }
+
+    /**
+     * Nouvelle position à chercher.
+     *
+     * @param legalMoves  Nombre de coups légaux à la racine
+     */
+    public void newPosition(int legalMoves) {
+        openBoard = legalMoves > OPEN_BOARD_MOVES;
+        previousMove = -1;
+        bestMoveChanges = 0;
+        scoreDropped = false;
+    }
+
+    /**
+     * Démarre le décompte du coup à startTime (heure système en millisecondes).
+     */
+    public void startClock(long startTime) {
+        this.startTime = startTime;
+        this.clockRunning = true;
+    }
+
+    /**
+     * Réflexion sur le temps de l'adversaire : pas de limite jusqu'au prochain startClock.
+     */
+    public void stopClock() {
+        clockRunning = false;
+    }
+
+    /**
+     * @return  L'heure limite de la recherche, ou Long.MAX_VALUE si le décompte est arrêté
+     */
+    public long getDeadline() {
+        return clockRunning ? startTime + timeLimitMs - marginMs : Long.MAX_VALUE;
+    }
+
+    /**
+     * Enregistre le résultat d'une itération complète et décide s'il faut en commencer une autre.
+     *
+     * @return  Vrai s'il reste assez de temps pour une itération de plus
+     */
+    public boolean iterationDone(int bestMove, int score) {
+        bestMoveChanges /= 2;
+        if (previousMove >= 0) {
+            if (bestMove != previousMove) {
+                bestMoveChanges += 1;
+            }
+            scoreDropped = score < previousScore - DROP_THRESHOLD;
+        }
+        previousMove = bestMove;
+        previousScore = score;
+
+        if (!clockRunning) {
+            return true;
+        }
+        return System.currentTimeMillis() - startTime < softLimit();
+    }
+
+    /**
+     * Temps après lequel on ne commence plus d'itération, au plus le temps disponible.
+     */
+    long softLimit() {
+        long available = timeLimitMs - marginMs;
+        double share = BASE_SHARE;
+        if (openBoard) {
+            share *= OPEN_BOARD_FACTOR;
+        }
+        share *= 1 + CHANGE_FACTOR * bestMoveChanges;
+        if (scoreDropped) {
+            share *= DROP_FACTOR;
+        }
+        return (long) (available * Math.min(1.0, share));
+    }
+}
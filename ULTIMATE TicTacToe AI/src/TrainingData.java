@@ -0,0 +1,128 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Positions de parties jouées et leur résultat, pour l'ajustement des poids (Tuner).
+ *
+ * Fichier : MAGIC, puis des entrées de RECORD_BYTES octets : le code LocalTables.index de
+ * chacun des 9 plateaux locaux (2 octets chacun) et le résultat final de la partie
+ * (O_WINS, DRAW ou X_WINS). L'évaluation ne dépend que des cases, c'est tout ce qu'on garde.
+ * Les entrées sont ajoutées au bout du fichier, qui peut donc réunir plusieurs séances.
+ * La lecture parcourt le fichier par blocs, sans le charger en mémoire.
+ */
+public final class TrainingData {
+
+    public static final int MAGIC = 0x54544431; // "TTD1"
+
+    public static final int O_WINS = 0;
+    public static final int DRAW = 1;
+    public static final int X_WINS = 2;
+
+    private static final int HEADER_BYTES = 4;
+    private static final int RECORD_BYTES = 9 * 2 + 1;
+
+    // Entrées lues ou écrites par appel système
+    private static final int BATCH_RECORDS = 4096;
+
+    /**
+     * Reçoit les positions lues : indices[b] est le code du plateau local b.
+     * Le tableau est réutilisé d'une position à l'autre.
+     */
+    public interface Visitor {
+        void visit(int[] indices, int result);
+    }
+
+    private TrainingData() {
+    }
+
+    /**
+     * Ajoute des positions au bout d'un fichier (créé au besoin). Un seul écrivain par fichier.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_BYTES);
+        private long records;
+
+        public Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() < HEADER_BYTES) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).flip(), 0);
+            }
+            // On écrit après la dernière entrée complète
+            records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            channel.position(HEADER_BYTES + records * RECORD_BYTES);
+        }
+
+        public void add(BitBoard bits, int result) throws IOException {
+            for (int b = 0; b < 9; b++) {
+                batch.putShort((short) LocalTables.index(bits.getLocalMask(b, BitBoard.X), bits.getLocalMask(b, BitBoard.O)));
+            }
+            batch.put((byte) result);
+            records++;
+            if (!batch.hasRemaining()) {
+                flush();
+            }
+        }
+
+        /**
+         * Nombre d'entrées du fichier, celles de cet écrivain comprises.
+         */
+        public long size() {
+            return records;
+        }
+
+        public void flush() throws IOException {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            batch.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+
+    /**
+     * Parcourt toutes les positions du fichier, dans l'ordre.
+     *
+     * @return  Le nombre de positions lues
+     */
+    public static long forEach(Path file, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.flip().remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Ce fichier n'est pas un fichier de positions: " + file);
+            }
+            ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_BYTES);
+            int[] indices = new int[9];
+            long count = 0;
+            channel.position(HEADER_BYTES);
+            while (channel.read(batch) > 0 || batch.position() > 0) {
+                batch.flip();
+                while (batch.remaining() >= RECORD_BYTES) {
+                    for (int b = 0; b < 9; b++) {
+                        indices[b] = batch.getShort();
+                    }
+                    visitor.visit(indices, batch.get());
+                    count++;
+                }
+                if (batch.hasRemaining() && channel.position() == channel.size()) {
+                    // Entrée incomplète en fin de fichier : ignorée
+                    break;
+                }
+                batch.compact();
+            }
+            return count;
+        }
+    }
+}
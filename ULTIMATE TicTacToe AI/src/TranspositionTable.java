@@ -0,0 +1,166 @@
+/**
+ * Table de transposition de taille fixe, construite sur des tableaux primitifs.
+ *
+ * Chaque entrée tient dans deux longs : la clé Zobrist et les données compactées
+ * (score, profondeur, type de borne, meilleur coup, génération).
+ * Les entrées sont rangées par paquets de 2 : la première case garde l'entrée la plus
+ * profonde (remplacée seulement par une recherche au moins aussi profonde ou par une
+ * entrée d'une recherche précédente), la seconde est toujours remplacée.
+ *
+ * La table est partagée sans verrou par les threads de recherche : on range
+ * clé ^ données plutôt que la clé, si bien qu'une entrée à moitié écrite par un
+ * autre thread ne correspond plus à sa clé et est simplement ignorée.
+ * Les compteurs de statistiques ne sont pas synchronisés et restent approximatifs
+ * en multi-thread.
+ */
+public class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1; // score >= valeur stockée (coupure beta)
+    public static final int UPPER = 2; // score <= valeur stockée (aucun coup n'a dépassé alpha)
+
+    // Valeur retournée par probe() quand la position n'est pas dans la table
+    public static final long MISS = 0;
+
+    public static final int NO_MOVE = 0x7F;
+
+    private static final int ENTRY_BYTES = 16;
+
+    // Disposition des données : [score:32][génération:8][profondeur:8][borne:2][coup:7][valide:1]
+    private static final long VALID = 1L;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+
+    private int generation;
+    private long probes;
+    private long hits;
+
+    /**
+     * @param sizeMb  Mémoire allouée à la table, en mégaoctets (arrondie à une puissance de 2)
+     */
+    public TranspositionTable(int sizeMb) {
+        long entries = Math.max(2, ((long) sizeMb << 20) / ENTRY_BYTES);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 30));
+        keys = new long[buckets * 2];
+        data = new long[buckets * 2];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Retourne les données compactées de la position, ou MISS.
+     */
+    public long probe(long key) {
+        probes++;
+        int i = ((int) key & bucketMask) << 1;
+        long d = data[i];
+        if ((keys[i] ^ d) == key && d != MISS) {
+            hits++;
+            return d;
+        }
+        d = data[i + 1];
+        if ((keys[i + 1] ^ d) == key && d != MISS) {
+            hits++;
+            return d;
+        }
+        return MISS;
+    }
+
+    public void store(long key, int depth, int score, int bound, int move) {
+        int i = ((int) key & bucketMask) << 1;
+        long entry = VALID
+                | ((long) (move < 0 ? NO_MOVE : move) << 1)
+                | ((long) bound << 8)
+                | ((long) depth << 10)
+                | ((long) generation << 18)
+                | ((long) score << 32);
+
+        long old = data[i];
+        if ((keys[i] ^ old) == key || old == MISS
+                || depth >= depth(old) || generation(old) != generation) {
+            keys[i] = key ^ entry;
+            data[i] = entry;
+        } else {
+            keys[i + 1] = key ^ entry;
+            data[i + 1] = entry;
+        }
+    }
+
+    /**
+     * Marque le début d'une nouvelle recherche : les entrées plus anciennes
+     * pourront être remplacées dans la case profonde.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(data, MISS);
+        resetStats();
+    }
+
+    public void resetStats() {
+        probes = 0;
+        hits = 0;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public double getHitRate() {
+        return (probes == 0) ? 0.0 : (double) hits / probes;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Données de la case slot (0 <= slot < getCapacity()), ou MISS si elle est vide.
+     */
+    public long entryAt(int slot) {
+        return data[slot];
+    }
+
+    /**
+     * Clé de la position rangée dans la case slot (sans intérêt si la case est vide).
+     */
+    public long keyAt(int slot) {
+        return keys[slot] ^ data[slot];
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 10) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 8) & 0x3;
+    }
+
+    /**
+     * @return  Le meilleur coup (index compact), ou -1 si aucun
+     */
+    public static int move(long entry) {
+        int m = (int) (entry >>> 1) & 0x7F;
+        return (m == NO_MOVE) ? -1 : m;
+    }
+
+    public static int generation(long entry) {
+        return (int) (entry >>> 18) & 0xFF;
+    }
+}
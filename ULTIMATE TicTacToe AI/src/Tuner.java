@@ -0,0 +1,163 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Ajuste les poids de l'évaluation sur des positions de parties jouées (méthode de Texel).
+ *
+ * Le résultat d'une position (1 si X a gagné la partie, 1/2 pour une nulle, 0 sinon) est
+ * comparé à la probabilité de gain prédite par l'évaluation, sigmoid(K * évaluation).
+ * On fixe d'abord K pour les poids de départ, puis chaque poids avance par pas dans la
+ * direction qui diminue l'erreur quadratique moyenne, tant qu'elle diminue ; quand plus
+ * aucun poids ne bouge, les pas sont divisés par deux.
+ * Le poids d'un plateau gagné n'est pas ajusté : il fixe l'échelle des scores.
+ * Chaque mesure de l'erreur relit tout le fichier de positions (TrainingData), par blocs.
+ *
+ * Usage : java Tuner [positions=selfplay.data] [poids=eval.weights] [passes=10]
+ * Les poids de départ sont ceux de -Dttt.weights, ou les poids par défaut.
+ */
+public class Tuner {
+
+    // Pas de départ de chaque poids (0 : poids non ajusté)
+    private static final double[] STEPS = {0, 0.5, 2, 0.25, 5, 10};
+
+    // Plus petit pas essayé, relatif au pas de départ
+    private static final double MIN_STEP_FRACTION = 1.0 / 8;
+
+    private final Path data;
+    private double k;
+    private long evaluations;
+
+    public Tuner(Path data) {
+        this.data = data;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path data = Paths.get((args.length > 0) ? args[0] : "selfplay.data");
+        Path out = Paths.get((args.length > 1) ? args[1] : "eval.weights");
+        int passes = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        Tuner tuner = new Tuner(data);
+        long start = System.nanoTime();
+        EvalWeights initial = EvalWeights.current();
+        double initialError = tuner.fitScale(initial);
+        System.out.printf("K = %.5f, erreur de départ %.6f (%s)%n", tuner.k, initialError, initial);
+
+        EvalWeights tuned = tuner.tune(initial, initialError, passes);
+        double error = tuner.error(tuned);
+        tuned.save(out, String.format("Tuner : %s, K = %.5f, erreur %.6f -> %.6f",
+                data.getFileName(), tuner.k, initialError, error));
+        System.out.printf("Erreur finale %.6f (%s)%n", error, tuned);
+        System.out.printf("%s écrit, %d mesures de l'erreur en %.1f s%n",
+                out, tuner.evaluations, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Choisit K, l'échelle de la sigmoïde, qui minimise l'erreur des poids donnés
+     * (recherche par section dorée, l'erreur étant unimodale en K).
+     *
+     * @return  L'erreur pour ce K
+     */
+    public double fitScale(EvalWeights weights) throws IOException {
+        double low = 1e-4;
+        double high = 0.1;
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        for (int i = 0; i < 20; i++) {
+            double a = high - ratio * (high - low);
+            double b = low + ratio * (high - low);
+            k = a;
+            double errorA = error(weights);
+            k = b;
+            double errorB = error(weights);
+            if (errorA < errorB) {
+                high = b;
+            } else {
+                low = a;
+            }
+        }
+        k = (low + high) / 2;
+        return error(weights);
+    }
+
+    /**
+     * Recherche locale : chaque poids essaie +pas puis -pas, et continue dans la direction
+     * qui diminue l'erreur jusqu'à ce qu'elle remonte.
+     */
+    public EvalWeights tune(EvalWeights weights, double error, int passes) throws IOException {
+        double[] steps = STEPS.clone();
+        for (int pass = 1; pass <= passes; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < steps.length; i++) {
+                if (steps[i] == 0) {
+                    continue;
+                }
+                for (double delta : new double[] {steps[i], -steps[i]}) {
+                    boolean moved = false;
+                    while (true) {
+                        EvalWeights candidate = weights.with(i, weights.get(i) + delta);
+                        double e = error(candidate);
+                        if (e >= error) {
+                            break;
+                        }
+                        weights = candidate;
+                        error = e;
+                        moved = true;
+                    }
+                    if (moved) {
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+            System.out.printf("passe %d : erreur %.6f (%s)%n", pass, error, weights);
+            if (!improved) {
+                boolean smaller = false;
+                for (int i = 0; i < steps.length; i++) {
+                    if (steps[i] / 2 >= STEPS[i] * MIN_STEP_FRACTION) {
+                        steps[i] /= 2;
+                        smaller = true;
+                    }
+                }
+                if (!smaller) {
+                    break;
+                }
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Erreur quadratique moyenne de la prédiction sur toutes les positions du fichier.
+     */
+    public double error(EvalWeights weights) throws IOException {
+        evaluations++;
+        double[] sum = new double[1];
+        long count = TrainingData.forEach(data, (indices, result) -> {
+            double e = (result / 2.0) - sigmoid(evaluate(weights, indices));
+            sum[0] += e * e;
+        });
+        return sum[0] / Math.max(1, count);
+    }
+
+    // Comme AIPlayer.evaluate, du point de vue de X, à partir des codes des 9 plateaux locaux
+    private static int evaluate(EvalWeights weights, int[] indices) {
+        int score = 0;
+        int wonX = 0;
+        int wonO = 0;
+        for (int b = 0; b < 9; b++) {
+            score += weights.localScore(indices[b]);
+            int winner = LocalTables.winner(indices[b]);
+            if (winner == BitBoard.X) {
+                wonX |= 1 << b;
+            } else if (winner == BitBoard.O) {
+                wonO |= 1 << b;
+            }
+        }
+        score += weights.globalScore(LocalTables.index(wonX, wonO));
+        return Math.max(-EvalWeights.MAX_SCORE, Math.min(EvalWeights.MAX_SCORE, score));
+    }
+
+    private double sigmoid(int score) {
+        return 1 / (1 + Math.exp(-k * score));
+    }
+}
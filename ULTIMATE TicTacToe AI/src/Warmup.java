@@ -0,0 +1,172 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Préchauffage du JIT avant la première recherche de la partie.
+ *
+ * Au démarrage, la recherche (negamax, evaluate, generateMoves...) est encore interprétée
+ * ou compilée sans optimisation : un premier coup cherché à froid visite bien moins de noeuds
+ * que les suivants. Pendant la connexion au serveur, on cherche donc en boucle les positions
+ * de BenchPositions, pour les deux marques, par tranches courtes, et on joue le coup trouvé
+ * sur un Board pour entraîner aussi Board et LocalBoard. Le moteur utilisé est jetable ;
+ * seul compte le code compilé, partagé par toute la JVM.
+ *
+ * Le préchauffage tourne sur un thread de fond jusqu'à son budget ou jusqu'à stop(),
+ * appelé avant la première vraie recherche : stop() interrompt la recherche de préchauffage
+ * en cours au lieu d'attendre sa fin, pour ne pas prendre sur le temps du coup.
+ *
+ * Usage : java Warmup [duréeMs=6000]
+ * mesure la vitesse de recherche d'une JVM froide au fil du temps, jusqu'à pleine vitesse.
+ */
+public class Warmup {
+
+    // Budget par défaut, un peu au-delà du temps mesuré jusqu'à pleine vitesse
+    public static final long DEFAULT_BUDGET_MS = 3000;
+
+    // Durée d'une recherche de préchauffage
+    private static final long SLICE_MS = 50;
+
+    // Attente maximale de stop() : la recherche en cours est interrompue, pas attendue
+    private static final long STOP_WAIT_MS = 5;
+
+    // Petite table : la mémoire des vraies parties n'est pas touchée
+    private static final int HASH_MB = 1;
+
+    // Mesure : position, profondeur fixe, et vitesse considérée comme pleine
+    // (part de la vitesse médiane de la seconde moitié des recherches)
+    private static final int MEASURE_POSITION = 4;
+    private static final int MEASURE_DEPTH = 8;
+    private static final double FULL_SPEED = 0.9;
+    private static final long SAMPLE_MS = 250;
+
+    private final long budgetMs;
+    private volatile boolean stopRequested;
+    private volatile AIPlayer[] engines;
+    private Thread thread;
+
+    private int searches;
+    private long nodes;
+    private long elapsedMs;
+
+    public Warmup(long budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    public static void main(String[] args) {
+        long durationMs = (args.length > 0) ? Long.parseLong(args[0]) : 6000;
+
+        // La même recherche à profondeur fixe est répétée, table vidée, sur une JVM froide ;
+        // la vitesse est mesurée par tranches de SAMPLE_MS
+        Board board = BenchPositions.board(MEASURE_POSITION);
+        Move lastMove = BenchPositions.lastMove(MEASURE_POSITION);
+        AIPlayer ai = new AIPlayer(BenchPositions.sideToMove(MEASURE_POSITION), Long.MAX_VALUE / 4, HASH_MB);
+        ai.setDepthLimit(MEASURE_DEPTH);
+        ai.setSolverThreshold(0);
+        List<long[]> samples = new ArrayList<>(); // {fin (ms), noeuds/s}
+        long start = System.nanoTime();
+        long sampleStart = start;
+        long sampleNodes = 0;
+        long now = start;
+        while ((now - start) / 1_000_000 < durationMs) {
+            ai.getTable().clear();
+            ai.getBestMove(board, lastMove);
+            sampleNodes += ai.getNodes();
+            now = System.nanoTime();
+            if (now - sampleStart >= SAMPLE_MS * 1_000_000 || samples.isEmpty()) {
+                // La première recherche est une mesure à elle seule : c'est celle du premier coup
+                samples.add(new long[] {(now - start) / 1_000_000, sampleNodes * 1_000_000_000L / (now - sampleStart)});
+                sampleStart = now;
+                sampleNodes = 0;
+            }
+        }
+        ai.shutdown();
+        long[] late = samples.subList(samples.size() / 2, samples.size()).stream()
+                .mapToLong(sample -> sample[1]).sorted().toArray();
+        long steady = late[late.length / 2];
+
+        System.out.printf("Position #%d à profondeur %d, table vidée à chaque recherche%n", MEASURE_POSITION, MEASURE_DEPTH);
+        System.out.printf("%10s %14s%n", "t (ms)", "noeuds/s");
+        long fullSpeedMs = -1;
+        for (long[] sample : samples) {
+            if (fullSpeedMs < 0 && sample[1] >= FULL_SPEED * steady) {
+                fullSpeedMs = sample[0];
+            }
+            System.out.printf("%10d %14d%n", sample[0], sample[1]);
+        }
+        System.out.printf("Première recherche : %.0f%% de la pleine vitesse (%d noeuds/s)%n",
+                100.0 * samples.get(0)[1] / steady, steady);
+        System.out.printf("Pleine vitesse (%.0f%%) atteinte après %d ms%n", 100 * FULL_SPEED, fullSpeedMs);
+    }
+
+    /**
+     * Lance le préchauffage sur un thread de fond.
+     */
+    public void start() {
+        thread = new Thread(this::run, "ai-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Arrête le préchauffage : la recherche en cours est interrompue, et on attend la fin
+     * du thread au plus STOP_WAIT_MS. Passé ce délai (thread pas encore au point de contrôle
+     * des noeuds), il s'arrête seul peu après, sans retarder la vraie recherche.
+     */
+    public void stop() {
+        stopRequested = true;
+        if (thread != null) {
+            long deadline = System.nanoTime() + STOP_WAIT_MS * 1_000_000;
+            try {
+                // L'interruption est répétée : une recherche peut commencer juste après la première
+                while (thread.isAlive() && System.nanoTime() < deadline) {
+                    AIPlayer[] running = engines;
+                    if (running != null) {
+                        for (AIPlayer engine : running) {
+                            engine.abortSearch();
+                        }
+                    }
+                    thread.join(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /**
+     * Préchauffe sur le thread courant, jusqu'au budget ou à stop().
+     */
+    public void run() {
+        long start = System.nanoTime();
+        AIPlayer[] engines = {new AIPlayer(Mark.X, SLICE_MS, HASH_MB), new AIPlayer(Mark.O, SLICE_MS, HASH_MB)};
+        this.engines = engines;
+        for (AIPlayer engine : engines) {
+            engine.setSafetyMargin(0);
+            engine.setSolverThreshold(0);
+        }
+        for (int i = 0; !stopRequested && (System.nanoTime() - start) / 1_000_000 < budgetMs; i++) {
+            int p = i % BenchPositions.size();
+            Board board = BenchPositions.board(p);
+            Mark side = BenchPositions.sideToMove(p);
+            AIPlayer engine = engines[(side == Mark.X) ? 0 : 1];
+            Move move = engine.getBestMove(board, BenchPositions.lastMove(p));
+            if (move != null) {
+                board.play(move.getRow(), move.getCol(), side);
+            }
+            searches++;
+            nodes += engine.getNodes();
+        }
+        for (AIPlayer engine : engines) {
+            engine.shutdown();
+        }
+        elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Résumé du préchauffage, après stop() ou run().
+     */
+    public String describe() {
+        return String.format("Préchauffage: %d recherches, %d noeuds en %d ms", searches, nodes, elapsedMs);
+    }
+}
@@ -0,0 +1,51 @@
+package bench;
+
+/**
+ * Opérations mesurées sur toutes les positions de BenchPositions, communes à Benchmark
+ * (sans dépendance) et aux benchmarks JMH de src-jmh : les deux mesurent le même code.
+ *
+ * JMH refuse les benchmarks du paquetage par défaut, et une classe d'un paquetage nommé
+ * ne peut pas utiliser celles du paquetage par défaut (Board, BitBoard, AIPlayer...).
+ * Les benchmarks JMH passent donc par cette interface, implémentée dans le paquetage par
+ * défaut par BenchWorkload et chargée par son nom, une seule fois, avant les mesures.
+ *
+ * Chaque méthode fait un passage sur les positions et retourne un résultat à consommer,
+ * pour que le JIT ne puisse pas éliminer le calcul.
+ */
+public interface Workload {
+
+    String IMPLEMENTATION = "BenchWorkload";
+
+    static Workload load() {
+        try {
+            return (Workload) Class.forName(IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Classe " + IMPLEMENTATION + " introuvable", e);
+        }
+    }
+
+    int positions();
+
+    // Chaque coup légal joué puis annulé
+    long boardPlayUnplay();
+
+    long bitboardPlayUnplay();
+
+    long boardGenerateMoves();
+
+    long bitboardGenerateMoves();
+
+    long boardCheckGlobalWinner();
+
+    long bitboardCheckGlobalWinner();
+
+    // AIPlayer.evaluate, du point de vue de X
+    long evaluate();
+
+    /**
+     * Recherche Alpha-Beta de la position i à profondeur fixe, table vidée.
+     *
+     * @return  Le nombre de noeuds visités
+     */
+    long search(int i, int depth);
+}